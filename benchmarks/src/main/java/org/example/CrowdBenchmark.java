@@ -0,0 +1,38 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// One crowd tick for the whole population
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CrowdBenchmark {
+    @Param({"1000", "10000"})
+    int birds;
+
+    private FlappyCrowd crowd;
+    private int[] offsets;
+    private boolean[] flaps;
+    private long games;
+
+    @Setup
+    public void setup() {
+        crowd = new FlappyCrowd(birds, 42);
+        offsets = FlappyCrowd.makeOffsets(birds, 42);
+        flaps = new boolean[birds];
+    }
+
+    @Benchmark
+    public void tick() {
+        if (crowd.aliveCount() == 0) {
+            crowd.reset(42 + games++);
+        }
+        crowd.autopilot(offsets, flaps);
+        crowd.step(flaps);
+    }
+}
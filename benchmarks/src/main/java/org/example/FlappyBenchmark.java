@@ -0,0 +1,53 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// Simulation hot paths: one engine tick (pipe scroll, collision, scoring), the broadphase
+// collision test alone and whole autopilot games.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FlappyBenchmark {
+    // 0 is the normal course; more keeps that many pipe pairs alive at once
+    @Param({"0", "1000"})
+    int obstacles;
+
+    private FlappyEngine engine;
+    private long games;
+
+    @Setup
+    public void setup() {
+        engine = obstacles > 0 ? FlappyEngine.stress(42, obstacles) : new FlappyEngine(42);
+    }
+
+    @Benchmark
+    public void tick() {
+        if (engine.isGameOver()) {
+            engine.reset(42 + games++);
+        }
+        engine.step(FlappyEngine.autopilot(engine));
+    }
+
+    @Benchmark
+    public boolean hitsPipe() {
+        return FlappyEngine.hitsPipe(engine.getPipes(), engine.getBirdY());
+    }
+
+    // A whole autopilot game from the start screen to the crash, capped at 20,000 ticks
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void fullGame(Blackhole bh) {
+        engine.reset(42 + games++);
+        while (!engine.isGameOver() && engine.getTick() < 20_000) {
+            engine.step(FlappyEngine.autopilot(engine));
+        }
+        bh.consume(engine.getScore());
+    }
+}
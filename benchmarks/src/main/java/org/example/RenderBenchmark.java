@@ -0,0 +1,63 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+// One full frame drawn offscreen into a BufferedImage, the same calls GamePanel makes per frame,
+// at the game's own size and at the window sizes it has to keep 144 fps at
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class RenderBenchmark {
+    @Param({"800x600", "2560x1440", "3840x2160"})
+    String size;
+
+    private BufferedImage frame;
+    private Graphics2D g2d;
+    private FlappyRenderer renderer;
+    private FlappyEngine engine;
+    private FlappyCrowd crowd;
+    private long millis;
+
+    @Setup
+    public void setup() {
+        int width = Integer.parseInt(size.substring(0, size.indexOf('x')));
+        int height = Integer.parseInt(size.substring(size.indexOf('x') + 1));
+        frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        g2d = frame.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        renderer = new FlappyRenderer(null);
+        renderer.setViewport(width, height);
+        engine = new FlappyEngine(42);
+        crowd = new FlappyCrowd(10_000, 42);
+        for (int i = 0; i < 500; i++) {
+            engine.step(FlappyEngine.autopilot(engine)); // Get some pipes on screen
+            crowd.step(new boolean[10_000]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        g2d.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage frame() {
+        millis += 20;
+        renderer.render(g2d, engine, 0.5, millis, true);
+        return frame;
+    }
+
+    @Benchmark
+    public BufferedImage crowdFrame() {
+        millis += 20;
+        renderer.renderCrowd(g2d, crowd, 0.5, millis, true, 200);
+        return frame;
+    }
+}
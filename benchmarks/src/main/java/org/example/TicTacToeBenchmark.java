@@ -0,0 +1,115 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Win checks, the solved-table AI, whole games, a fixed-depth m,n,k search and Ultimate playouts
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TicTacToeBenchmark {
+    private final Random random = new Random(42);
+    private int mask;
+    private MnkBoard gomoku;
+    private int[] gomokuMoves;
+    private final UltimateBoard ultimate = new UltimateBoard();
+    private final UltimateBoard playout = new UltimateBoard();
+    private final SplittableRandom playoutRandom = new SplittableRandom(42);
+
+    @Setup
+    public void setup() {
+        TicTacToeSolver.positionCount(); // Build the table outside the measurement
+        gomoku = new MnkBoard(15, 15, 5);
+        gomokuMoves = new int[gomoku.size()];
+        for (int i = 0; i < gomokuMoves.length; i++) {
+            gomokuMoves[i] = i;
+        }
+        for (int i = gomokuMoves.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = gomokuMoves[i];
+            gomokuMoves[i] = gomokuMoves[j];
+            gomokuMoves[j] = t;
+        }
+    }
+
+    // search7x7's own state, so its per-invocation setup doesn't slow the other benchmarks
+    @State(Scope.Thread)
+    public static class SearchState {
+        MnkBoard sevenBySeven;
+        MnkSearch search;
+
+        @Setup
+        public void setup() {
+            sevenBySeven = new MnkBoard(7, 7, 5);
+            for (int cell : new int[]{24, 17, 25, 23}) {
+                sevenBySeven.make(cell);
+            }
+        }
+
+        // A cold table per op, or every search after the first would be answered from it
+        @Setup(Level.Invocation)
+        public void freshTable() {
+            search = new MnkSearch(16);
+        }
+    }
+
+    // TicTacToe.checkWin: one table lookup per 9-bit mask
+    @Benchmark
+    public boolean checkWin() {
+        mask = (mask + 1) & TicTacToeBoard.FULL;
+        return TicTacToeBoard.isWin(mask);
+    }
+
+    // make + win check + unmake on a 15x15 board, 16 stones deep
+    @Benchmark
+    public void mnkMakeUnmake(Blackhole bh) {
+        for (int i = 0; i < 16; i++) {
+            gomoku.make(gomokuMoves[i]);
+            bh.consume(gomoku.winner());
+        }
+        for (int i = 0; i < 16; i++) {
+            gomoku.unmake();
+        }
+    }
+
+    @Benchmark
+    public int bestMove() {
+        return TicTacToeSolver.bestMove(0b000_010_001, 0b000_000_100, random);
+    }
+
+    // Perfect computer against itself, empty board to draw
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public int fullGame() {
+        TicTacToeBoard board = new TicTacToeBoard();
+        while (!board.isOver()) {
+            board.play(TicTacToeSolver.move(board.xBits(), board.oBits(), TicTacToeSolver.Difficulty.PERFECT, random));
+        }
+        return board.winner();
+    }
+
+    // Single-threaded, depth-limited so the op does a fixed amount of work
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public MnkSearch.Result search7x7(SearchState s) {
+        return s.search.search(s.sevenBySeven, Long.MAX_VALUE / 2_000_000, 5, 1);
+    }
+
+    // One random game from the empty board, the way UltimateSearch plays them out
+    @Benchmark
+    public int ultimatePlayout() {
+        playout.copyFrom(ultimate);
+        while (!playout.isOver()) {
+            playout.make(playout.randomMove(playoutRandom));
+        }
+        return playout.winner();
+    }
+}
@@ -0,0 +1,253 @@
+package org.example;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.util.function.IntConsumer;
+
+// The whole TicTacToe grid as one component. It does its own hit-testing and paints cells
+// from cached images: one tile for an empty cell and one glyph each for X and O, rebuilt only
+// when the cell size changes. A move or a hover change repaints just the cells involved, and
+// paintComponent skips every cell outside the clip, so a 15x15 board costs no more per move
+// than a 3x3 one.
+class BoardView extends JComponent {
+    private static final Color HOVER = new Color(255, 255, 255, 30);
+    private static final int BORDER_X = 30, BORDER_Y = 10;
+
+    private final Color background, cell, xColor, oColor;
+    private IntConsumer onClick = c -> {};
+
+    private MnkBoard board;
+    private int[] shown; // Mark each cell was last painted with
+    private Color[] highlight; // Winning line or hint marker, null for none
+    private int hover = -1, pressed = -1;
+
+    // Geometry, recomputed on resize
+    private int left, top, cellW, cellH, gap, arc;
+    private BufferedImage tile, xGlyph, oGlyph;
+
+    BoardView(Color background, Color cell, Color xColor, Color oColor) {
+        this.background = background;
+        this.cell = cell;
+        this.xColor = xColor;
+        this.oColor = oColor;
+        setOpaque(true);
+        setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                setHover(cellAt(e.getX(), e.getY()));
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                setHover(cellAt(e.getX(), e.getY()));
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                setHover(-1);
+            }
+
+            @Override
+            public void mousePressed(MouseEvent e) {
+                pressed = SwingUtilities.isLeftMouseButton(e) ? cellAt(e.getX(), e.getY()) : -1;
+            }
+
+            // Like a button: press and release on the same cell
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                int cell = cellAt(e.getX(), e.getY());
+                if (cell >= 0 && cell == pressed) {
+                    onClick.accept(cell);
+                }
+                pressed = -1;
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+    }
+
+    void setOnClick(IntConsumer onClick) {
+        this.onClick = onClick;
+    }
+
+    // Shows a new board; repaints everything
+    void setBoard(MnkBoard board) {
+        this.board = board;
+        shown = new int[board.size()];
+        highlight = new Color[board.size()];
+        hover = -1;
+        tile = null; // Cell size depends on the grid
+        repaint();
+    }
+
+    // Repaints the cells whose mark changed since they were last painted
+    void refresh() {
+        for (int i = 0; i < shown.length; i++) {
+            if (shown[i] != board.get(i)) {
+                shown[i] = board.get(i);
+                repaintCell(i);
+            }
+        }
+    }
+
+    void setHighlight(int cell, Color color) {
+        highlight[cell] = color;
+        repaintCell(cell);
+    }
+
+    void clearHighlights() {
+        for (int i = 0; i < highlight.length; i++) {
+            if (highlight[i] != null) {
+                highlight[i] = null;
+                repaintCell(i);
+            }
+        }
+    }
+
+    private void setHover(int cell) {
+        if (cell != hover) {
+            int old = hover;
+            hover = cell;
+            repaintCell(old);
+            repaintCell(cell);
+        }
+    }
+
+    private void repaintCell(int cell) {
+        if (cell >= 0 && layoutCells()) {
+            repaint(cellX(cell % board.cols), cellY(cell / board.cols), cellW, cellH);
+        }
+    }
+
+    // Cell under (x, y), or -1 over a gap or the border
+    int cellAt(int x, int y) {
+        if (board == null || !layoutCells()) {
+            return -1;
+        }
+        int cx = x - left, cy = y - top;
+        if (cx < 0 || cy < 0) {
+            return -1;
+        }
+        int col = cx / (cellW + gap), row = cy / (cellH + gap);
+        if (col >= board.cols || row >= board.rows || cx % (cellW + gap) >= cellW || cy % (cellH + gap) >= cellH) {
+            return -1;
+        }
+        return row * board.cols + col;
+    }
+
+    private int cellX(int col) { return left + col * (cellW + gap); }
+    private int cellY(int row) { return top + row * (cellH + gap); }
+
+    // Fits the grid into the component like the old GridLayout did; false while too small to draw
+    private boolean layoutCells() {
+        gap = Math.max(board.rows, board.cols) > 9 ? 2 : 8;
+        arc = board.size() > 9 ? 8 : 20;
+        int w = (getWidth() - 2 * BORDER_X - gap * (board.cols - 1)) / board.cols;
+        int h = (getHeight() - 2 * BORDER_Y - gap * (board.rows - 1)) / board.rows;
+        if (w <= 0 || h <= 0) {
+            return false;
+        }
+        left = (getWidth() - board.cols * w - gap * (board.cols - 1)) / 2;
+        top = (getHeight() - board.rows * h - gap * (board.rows - 1)) / 2;
+        if (tile == null || w != cellW || h != cellH) {
+            cellW = w;
+            cellH = h;
+            buildImages();
+        }
+        return true;
+    }
+
+    private void buildImages() {
+        tile = image(Transparency.OPAQUE);
+        Graphics2D g = begin(tile);
+        g.setColor(background);
+        g.fillRect(0, 0, cellW, cellH);
+        g.setColor(cell);
+        g.fillRoundRect(0, 0, cellW, cellH, arc, arc);
+        g.dispose();
+
+        Font font = new Font("Segoe UI", Font.BOLD, Math.max(14, 180 / Math.max(board.rows, board.cols)));
+        xGlyph = glyph("X", font, xColor);
+        oGlyph = glyph("O", font, oColor);
+    }
+
+    private BufferedImage glyph(String mark, Font font, Color color) {
+        BufferedImage img = image(Transparency.TRANSLUCENT);
+        Graphics2D g = begin(img);
+        g.setFont(font);
+        g.setColor(color);
+        FontMetrics fm = g.getFontMetrics();
+        g.drawString(mark, (cellW - fm.stringWidth(mark)) / 2, (cellH - fm.getHeight()) / 2 + fm.getAscent());
+        g.dispose();
+        return img;
+    }
+
+    private BufferedImage image(int transparency) {
+        GraphicsConfiguration config = getGraphicsConfiguration();
+        if (config != null) {
+            return config.createCompatibleImage(cellW, cellH, transparency);
+        }
+        return new BufferedImage(cellW, cellH, transparency == Transparency.OPAQUE
+                ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+    }
+
+    private static Graphics2D begin(BufferedImage img) {
+        Graphics2D g = img.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        return g;
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(540, 480);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(getWidth(), getHeight());
+        }
+        g.setColor(background);
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+        if (board == null || !layoutCells()) {
+            return;
+        }
+
+        Graphics2D g2 = (Graphics2D) g;
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        // Only the rows and columns the clip touches
+        int stepX = cellW + gap, stepY = cellH + gap;
+        int col0 = Math.max(0, (clip.x - left) / stepX);
+        int col1 = Math.min(board.cols - 1, (clip.x + clip.width - left) / stepX);
+        int row0 = Math.max(0, (clip.y - top) / stepY);
+        int row1 = Math.min(board.rows - 1, (clip.y + clip.height - top) / stepY);
+        for (int row = row0; row <= row1; row++) {
+            for (int col = col0; col <= col1; col++) {
+                int i = row * board.cols + col;
+                int x = cellX(col), y = cellY(row);
+                int mark = board.get(i);
+                shown[i] = mark;
+                g2.drawImage(tile, x, y, null);
+                if (highlight[i] != null) {
+                    g2.setColor(highlight[i]);
+                    g2.fillRoundRect(x, y, cellW, cellH, arc, arc);
+                }
+                if (mark == MnkBoard.X) {
+                    g2.drawImage(xGlyph, x, y, null);
+                } else if (mark == MnkBoard.O) {
+                    g2.drawImage(oGlyph, x, y, null);
+                } else if (i == hover) {
+                    g2.setColor(HOVER); // Glow on hover if empty
+                    g2.fillRoundRect(x, y, cellW, cellH, arc, arc);
+                }
+            }
+        }
+    }
+}
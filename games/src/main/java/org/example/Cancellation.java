@@ -0,0 +1,16 @@
+package org.example;
+
+// Stops one search call early; the search hands back the best move it has so far. Every
+// call gets its own, so cancelling a stale search can't cut short the one that replaced it.
+// Searches also trip it themselves once their time is up.
+class Cancellation {
+    private volatile boolean cancelled;
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,107 @@
+package org.example;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Produces a course CHUNK pairs at a time. A chunk depends only on the curve, the seed and
+// its index, so any stretch of any course can be generated independently, on any thread.
+// Recently used chunks sit in a small LRU cache; with prefetch on, the chunk after the
+// one in use is generated on a background thread before the field needs it.
+class CourseGenerator {
+    static final int CHUNK = 64;
+    private static final int CACHE = 4;
+    private static final int MIN_TOP = 60; // Shortest top pipe
+    private static final int MAX_GAP_BOTTOM = 550; // Lowest the gap's bottom edge may sit
+
+    private static final ExecutorService PREFETCH = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "course-prefetch");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // One chunk of pairs, indexed from 0 within the chunk
+    static final class Chunk {
+        final long index;
+        final int[] spacing = new int[CHUNK];
+        final int[] topHeight = new int[CHUNK];
+        final int[] gap = new int[CHUNK];
+
+        Chunk(long index) {
+            this.index = index;
+        }
+    }
+
+    private final DifficultyCurve curve;
+    private final Map<Long, Chunk> cache = new LinkedHashMap<Long, Chunk>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Chunk> eldest) {
+            return size() > CACHE;
+        }
+    };
+    private long seed;
+    private int epoch; // Bumped on reset so a late prefetch for the old course is dropped
+    private long prefetched = -1; // Highest chunk index handed to the prefetcher
+    private volatile boolean prefetch;
+
+    CourseGenerator(DifficultyCurve curve) {
+        this.curve = curve;
+    }
+
+    DifficultyCurve curve() { return curve; }
+
+    void setPrefetch(boolean prefetch) {
+        this.prefetch = prefetch;
+    }
+
+    synchronized void reset(long seed) {
+        this.seed = seed;
+        epoch++;
+        prefetched = -1;
+        cache.clear();
+    }
+
+    // Same curve, seed and index give the same chunk every time
+    static Chunk generate(DifficultyCurve curve, long seed, long index) {
+        SplittableRandom random = new SplittableRandom(seed ^ (index * 0x9E3779B97F4A7C15L));
+        Chunk chunk = new Chunk(index);
+        long first = index * CHUNK;
+        for (int i = 0; i < CHUNK; i++) {
+            int gap = curve.gap(first + i);
+            chunk.gap[i] = gap;
+            chunk.spacing[i] = curve.spacing(first + i);
+            chunk.topHeight[i] = MIN_TOP + random.nextInt(MAX_GAP_BOTTOM - gap - MIN_TOP);
+        }
+        return chunk;
+    }
+
+    Chunk chunk(long index) {
+        Chunk chunk;
+        long s;
+        int e;
+        synchronized (this) {
+            chunk = cache.get(index);
+            if (chunk == null) {
+                chunk = generate(curve, seed, index); // Prefetch was off or lost the race
+                cache.put(index, chunk);
+            }
+            if (!prefetch || prefetched > index || cache.containsKey(index + 1)) {
+                return chunk;
+            }
+            prefetched = index + 1;
+            s = seed;
+            e = epoch;
+        }
+        PREFETCH.execute(() -> {
+            Chunk next = generate(curve, s, index + 1);
+            synchronized (this) {
+                if (epoch == e) {
+                    cache.putIfAbsent(index + 1, next);
+                }
+            }
+        });
+        return chunk;
+    }
+}
@@ -0,0 +1,48 @@
+package org.example;
+
+// How a course changes with distance. pipe is the pair's sequence number from the start of
+// the run, so every value is a pure function of position and any chunk of the course can be
+// generated on its own.
+interface DifficultyCurve {
+    int spacing(long pipe); // px from the previous pair
+    int gap(long pipe);
+    int speed(long pipe); // Scroll speed while this pair is the oldest one on screen
+
+    // Built-in courses, picked with --course=name; replays store the ordinal
+    enum Preset implements DifficultyCurve {
+        // The original easy course
+        CLASSIC {
+            @Override
+            public int spacing(long pipe) { return FlappyEngine.PIPE_SPACING; }
+            @Override
+            public int gap(long pipe) { return FlappyEngine.PIPE_GAP; }
+            @Override
+            public int speed(long pipe) { return FlappyEngine.PIPE_SPEED; }
+        },
+        // Starts as CLASSIC and tightens over the first 200 pairs:
+        // gap 250 -> 170 px, spacing 350 -> 260 px, speed 3 -> 5 px/tick
+        RAMP {
+            @Override
+            public int spacing(long pipe) { return FlappyEngine.PIPE_SPACING - (int) (90 * progress(pipe)); }
+            @Override
+            public int gap(long pipe) { return FlappyEngine.PIPE_GAP - (int) (80 * progress(pipe)); }
+            @Override
+            public int speed(long pipe) { return FlappyEngine.PIPE_SPEED + (int) (2 * progress(pipe) + 0.5); }
+        };
+
+        private static double progress(long pipe) {
+            return Math.min(1.0, pipe / 200.0);
+        }
+    }
+
+    static DifficultyCurve constant(int spacing, int gap, int speed) {
+        return new DifficultyCurve() {
+            @Override
+            public int spacing(long pipe) { return spacing; }
+            @Override
+            public int gap(long pipe) { return gap; }
+            @Override
+            public int speed(long pipe) { return speed; }
+        };
+    }
+}
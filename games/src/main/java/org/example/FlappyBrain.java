@@ -0,0 +1,83 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+// A tiny feed-forward net that decides when to flap. The weights are the genome the
+// trainer evolves; the same object drives the Swing game when loaded with --brain.
+class FlappyBrain {
+    static final int INPUTS = 5;
+    static final int HIDDEN = 6;
+    static final int GENES = HIDDEN * (INPUTS + 1) + HIDDEN + 1;
+
+    final float[] genes;
+
+    FlappyBrain(float[] genes) {
+        if (genes.length != GENES) {
+            throw new IllegalArgumentException("Expected " + GENES + " genes, got " + genes.length);
+        }
+        this.genes = genes;
+    }
+
+    static FlappyBrain random(SplittableRandom random) {
+        float[] genes = new float[GENES];
+        for (int i = 0; i < GENES; i++) {
+            genes[i] = (float) random.nextDouble(-1, 1);
+        }
+        return new FlappyBrain(genes);
+    }
+
+    boolean flap(FlappyEngine engine) {
+        PipeField pipes = engine.getPipes();
+        int next = engine.nextPipe();
+        int gap = next < 0 ? FlappyEngine.PIPE_GAP : pipes.gap(next);
+        int gapTop = next < 0 ? FlappyEngine.HEIGHT / 2 - gap / 2 : pipes.topHeight(next);
+        int dx = next < 0 ? FlappyEngine.WIDTH : pipes.x(next) - FlappyEngine.BIRD_X;
+        int y = engine.getBirdY();
+
+        // Inputs are roughly scaled to [-1, 1]
+        float in0 = y / (float) FlappyEngine.HEIGHT;
+        float in1 = engine.getBirdVelocity() / 15f;
+        float in2 = dx / (float) FlappyEngine.WIDTH;
+        float in3 = (y - gapTop) / (float) FlappyEngine.HEIGHT;
+        float in4 = (gapTop + gap - y - FlappyEngine.BIRD_HEIGHT) / (float) FlappyEngine.HEIGHT;
+
+        float[] g = genes;
+        float out = g[GENES - 1];
+        for (int h = 0, k = 0; h < HIDDEN; h++, k += INPUTS + 1) {
+            float sum = g[k] * in0 + g[k + 1] * in1 + g[k + 2] * in2 + g[k + 3] * in3 + g[k + 4] * in4 + g[k + 5];
+            out += g[HIDDEN * (INPUTS + 1) + h] * (float) Math.tanh(sum);
+        }
+        return out > 0;
+    }
+
+    // Plain text, one gene per line, so a genome can be diffed and hand-edited
+    void save(Path file) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (float gene : genes) {
+            sb.append(gene).append('\n');
+        }
+        Files.write(file, sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    static FlappyBrain load(Path file) throws IOException {
+        float[] genes = new float[GENES];
+        int n = 0;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (!line.isEmpty()) {
+                if (n == GENES) {
+                    throw new IOException(file + ": more than " + GENES + " genes");
+                }
+                genes[n++] = Float.parseFloat(line);
+            }
+        }
+        if (n != GENES) {
+            throw new IOException(file + ": expected " + GENES + " genes, got " + n);
+        }
+        return new FlappyBrain(genes);
+    }
+}
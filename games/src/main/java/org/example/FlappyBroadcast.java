@@ -0,0 +1,345 @@
+package org.example;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+
+// Streams a running Flappybird game to spectators (FlappySpectator) over TCP.
+//
+// The engine is deterministic, so the per-tick delta is just whether the bird flapped: a
+// spectator steps the same engine and gets the same bird, pipes and score. Keyframes carry the
+// whole state, once a second and whenever the game restarts or starts, so spectators can join
+// at any time and check they're still in step.
+//
+// The game loop only appends messages to a batch and hands it over once per frame; one
+// selector thread copies each batch into every spectator's buffer and writes them all. A
+// spectator's buffer is fixed-size; one that falls CLIENT_BUFFER bytes behind is dropped.
+//
+// Wire protocol, server to spectator only: one type byte followed by a fixed-size payload
+// (big-endian), like TicTacToeServer's.
+//   KEYFRAME course seed(long) tick(int) birdY(short) velocity(short) score(int) high(int) flags
+//   TICK | FLAP  one engine step, without or with a flap
+// course is the DifficultyCurve.Preset ordinal; flags are STARTED and GAME_OVER.
+class FlappyBroadcast implements Runnable {
+    static final int DEFAULT_PORT = 7788;
+
+    static final byte KEYFRAME = 1, TICK = 2, FLAP = 3;
+    static final int STARTED = 1, GAME_OVER = 2; // KEYFRAME flags
+    static final int KEYFRAME_TICKS = 50; // A keyframe every second of play
+    private static final int CLIENT_BUFFER = 4096; // About 40 s of play
+
+    // Bytes in a message of the given type, type byte included; -1 for an unknown type
+    static int size(byte type) {
+        switch (type) {
+            case KEYFRAME: return 27;
+            case TICK: return 1;
+            case FLAP: return 1;
+            default: return -1;
+        }
+    }
+
+    private final ServerSocketChannel server;
+    private final Selector selector;
+    private final ArrayList<Spectator> spectators = new ArrayList<>();
+    private volatile boolean running = true;
+
+    // Game loop side: messages since the last publish()
+    private ByteBuffer batch = ByteBuffer.allocate(1024);
+    // Published batches not yet taken by the selector thread; swapped under the lock
+    private final Object lock = new Object();
+    private ByteBuffer outbox = ByteBuffer.allocate(4096);
+    private ByteBuffer taken = ByteBuffer.allocate(4096);
+    // Selector thread side: the last keyframe and everything after it, sent to newcomers first
+    private final ByteBuffer catchUp = ByteBuffer.allocate(CLIENT_BUFFER / 2);
+    private final ByteBuffer sink = ByteBuffer.allocate(256); // Whatever spectators send, thrown away
+
+    // Written by the selector thread only; read by the reporter
+    private volatile int spectatorCount;
+    private volatile long bytesSent, dropped;
+
+    private static final class Spectator {
+        final SocketChannel channel;
+        final SelectionKey key;
+        final ByteBuffer out = ByteBuffer.allocate(CLIENT_BUFFER);
+
+        Spectator(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+    }
+
+    FlappyBroadcast(InetSocketAddress address) throws IOException {
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(address, 1024);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    int port() {
+        return server.socket().getLocalPort();
+    }
+
+    void close() {
+        running = false;
+        selector.wakeup();
+    }
+
+    // The rest of the public side runs on the game loop thread
+
+    void keyframe(FlappyEngine engine, boolean started) {
+        if (!(engine.getCurve() instanceof DifficultyCurve.Preset)) {
+            throw new IllegalStateException("Cannot broadcast a run on a custom course");
+        }
+        reserve(size(KEYFRAME));
+        batch.put(KEYFRAME);
+        batch.put((byte) ((DifficultyCurve.Preset) engine.getCurve()).ordinal());
+        batch.putLong(engine.getSeed());
+        batch.putInt((int) engine.getTick());
+        batch.putShort((short) engine.getBirdY());
+        batch.putShort((short) engine.getBirdVelocity());
+        batch.putInt(engine.getScore());
+        batch.putInt(engine.getHighScore());
+        batch.put((byte) ((started ? STARTED : 0) | (engine.isGameOver() ? GAME_OVER : 0)));
+    }
+
+    // After every step the engine took; flap is what it was given
+    void tick(FlappyEngine engine, boolean flap) {
+        reserve(1);
+        batch.put(flap ? FLAP : TICK);
+        if (engine.getTick() % KEYFRAME_TICKS == 0) {
+            keyframe(engine, true);
+        }
+    }
+
+    // Hands this frame's messages to the selector thread
+    void publish() {
+        if (batch.position() == 0) {
+            return;
+        }
+        batch.flip();
+        synchronized (lock) {
+            if (outbox.remaining() < batch.remaining()) {
+                outbox = grow(outbox, batch.remaining());
+            }
+            outbox.put(batch);
+        }
+        batch.clear();
+        selector.wakeup();
+    }
+
+    private void reserve(int bytes) {
+        if (batch.remaining() < bytes) {
+            batch = grow(batch, bytes);
+        }
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int needed) {
+        ByteBuffer bigger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + needed));
+        buffer.flip();
+        bigger.put(buffer);
+        return bigger;
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Spectator s = (Spectator) key.attachment();
+                    if (key.isReadable()) {
+                        discardInput(s);
+                    }
+                    if (key.isValid() && key.isWritable()) {
+                        flush(s);
+                    }
+                }
+                synchronized (lock) {
+                    ByteBuffer published = outbox;
+                    outbox = taken;
+                    taken = published;
+                }
+                if (taken.position() > 0) {
+                    taken.flip();
+                    fanOut(taken);
+                    taken.clear();
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Flappybird broadcast stopped: " + e);
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                closeQuietly(key);
+            }
+            closeQuietly(selector);
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = server.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            Spectator s = new Spectator(channel, key);
+            key.attach(s);
+            spectators.add(s);
+            spectatorCount = spectators.size();
+            // Starts at the last keyframe; it's at most a second old
+            s.out.put(catchUp.duplicate().flip());
+            flush(s);
+        }
+    }
+
+    // Spectators have nothing to say; reading only notices when they hang up
+    private void discardInput(Spectator s) {
+        int n;
+        try {
+            sink.clear();
+            while ((n = s.channel.read(sink)) > 0) {
+                sink.clear();
+            }
+        } catch (IOException e) {
+            n = -1;
+        }
+        if (n < 0) {
+            drop(s);
+        }
+    }
+
+    // Every spectator gets the same bytes, so the batch is copied once per spectator and sent
+    // with one write each
+    private void fanOut(ByteBuffer messages) {
+        trackKeyframes(messages);
+        int length = messages.remaining();
+        for (int i = spectators.size() - 1; i >= 0; i--) {
+            Spectator s = spectators.get(i);
+            if (s.out.remaining() < length) {
+                dropped++;
+                drop(s); // Too far behind to catch up
+                continue;
+            }
+            s.out.put(messages.duplicate());
+            flush(s);
+        }
+    }
+
+    // catchUp always starts at the newest keyframe
+    private void trackKeyframes(ByteBuffer messages) {
+        for (int p = messages.position(); p < messages.limit(); ) {
+            byte type = messages.get(p);
+            int size = size(type);
+            if (type == KEYFRAME || catchUp.remaining() < size) {
+                catchUp.clear();
+            }
+            catchUp.put(messages.duplicate().position(p).limit(p + size));
+            p += size;
+        }
+    }
+
+    private void flush(Spectator s) {
+        if (!s.key.isValid()) {
+            return;
+        }
+        s.out.flip();
+        try {
+            bytesSent += s.channel.write(s.out);
+        } catch (IOException e) {
+            s.out.clear();
+            drop(s);
+            return;
+        }
+        boolean more = s.out.hasRemaining();
+        s.out.compact();
+        s.key.interestOps(more ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+    }
+
+    private void drop(Spectator s) {
+        if (!s.key.isValid()) {
+            return;
+        }
+        closeQuietly(s.key);
+        spectators.remove(s);
+        spectatorCount = spectators.size();
+    }
+
+    private static void closeQuietly(SelectionKey key) {
+        key.cancel();
+        closeQuietly(key.channel());
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception ignored) {
+        }
+    }
+
+    String status() {
+        return String.format("%d spectators, %d dropped for falling behind, %d KB sent",
+                spectatorCount, dropped, bytesSent / 1024);
+    }
+
+    int spectators() { return spectatorCount; }
+    long bytesSent() { return bytesSent; }
+
+    // Headless broadcast of the autopilot at normal speed, e.g. for a display in the corner:
+    // java org.example.FlappyBroadcast [port] [--course=classic|ramp]
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = DEFAULT_PORT;
+        DifficultyCurve.Preset course = DifficultyCurve.Preset.CLASSIC;
+        for (String arg : args) {
+            if (arg.startsWith("--course=")) {
+                course = DifficultyCurve.Preset.valueOf(arg.substring("--course=".length()).toUpperCase());
+            } else {
+                port = Integer.parseInt(arg);
+            }
+        }
+        FlappyBroadcast broadcast = new FlappyBroadcast(new InetSocketAddress(port));
+        Thread thread = new Thread(broadcast, "flappy-broadcast");
+        thread.start();
+        System.out.println("Broadcasting the autopilot on port " + broadcast.port());
+
+        long seed = System.nanoTime();
+        FlappyEngine engine = new FlappyEngine(seed, course);
+        broadcast.keyframe(engine, true);
+        long next = System.nanoTime(), lastReport = next;
+        while (thread.isAlive()) {
+            if (engine.isGameOver()) {
+                engine.reset(++seed);
+                broadcast.keyframe(engine, true);
+            }
+            boolean flap = FlappyEngine.autopilot(engine);
+            engine.step(flap);
+            broadcast.tick(engine, flap);
+            broadcast.publish();
+            next += FlappyEngine.TICK_NANOS;
+            long sleep = next - System.nanoTime();
+            if (sleep > 0) {
+                Thread.sleep(sleep / 1_000_000, (int) (sleep % 1_000_000));
+            }
+            if (next - lastReport >= 5_000_000_000L) {
+                lastReport = next;
+                System.out.println(broadcast.status());
+            }
+        }
+    }
+}
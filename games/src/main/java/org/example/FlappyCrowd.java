@@ -0,0 +1,195 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Many birds flying one shared pipe field. Each bird follows exactly the FlappyEngine rules;
+// bird state lives in parallel primitive arrays so a tick is a few flat loops over them.
+class FlappyCrowd {
+    private static final int GROUND_Y = FlappyEngine.HEIGHT - FlappyEngine.BIRD_HEIGHT - FlappyEngine.GROUND_HEIGHT;
+
+    private final int size;
+    private final int[] birdY;
+    private final int[] prevBirdY;
+    private final int[] birdVelocity;
+    private final boolean[] alive;
+    private final int[] finalScore; // Score a bird died with; alive birds share the live score
+    private final int[] diedThisTick;
+
+    private final PipeField pipes;
+    private int aliveCount;
+    private int score;
+    private int lastScroll;
+    private long tick;
+    private long nextToScore;
+
+    FlappyCrowd(int size, long seed) {
+        this(size, seed, DifficultyCurve.Preset.CLASSIC);
+    }
+
+    FlappyCrowd(int size, long seed, DifficultyCurve curve) {
+        this.size = size;
+        pipes = new PipeField(curve, 2 * FlappyEngine.PIPE_SPACING);
+        birdY = new int[size];
+        prevBirdY = new int[size];
+        birdVelocity = new int[size];
+        alive = new boolean[size];
+        finalScore = new int[size];
+        diedThisTick = new int[size];
+        reset(seed);
+    }
+
+    void reset(long seed) {
+        Arrays.fill(birdY, FlappyEngine.BIRD_START_Y);
+        Arrays.fill(prevBirdY, FlappyEngine.BIRD_START_Y);
+        Arrays.fill(birdVelocity, 0);
+        Arrays.fill(alive, true);
+        Arrays.fill(finalScore, 0);
+        aliveCount = size;
+        score = 0;
+        lastScroll = 0;
+        tick = 0;
+        nextToScore = 0;
+        pipes.reset(seed);
+    }
+
+    // One tick for the whole population; flaps[i] is bird i's input. Once every bird is
+    // dead the world stops, just like a single engine stops at game over.
+    void step(boolean[] flaps) {
+        System.arraycopy(birdY, 0, prevBirdY, 0, size);
+        lastScroll = 0;
+        if (aliveCount == 0) {
+            return;
+        }
+
+        // Apply gravity; dead birds stay where they fell
+        for (int i = 0; i < size; i++) {
+            if (alive[i]) {
+                int v = (flaps[i] ? FlappyEngine.JUMP : birdVelocity[i]) + FlappyEngine.GRAVITY;
+                birdVelocity[i] = v;
+                birdY[i] += v;
+            }
+        }
+
+        lastScroll = pipes.speed();
+        pipes.advance(lastScroll);
+
+        // Every bird shares the same x, so the pipes overlapping it reduce to one safe
+        // band [safeTop, safeBottom) for the hit box, computed once for the whole crowd
+        int safeTop = Integer.MIN_VALUE;
+        int safeBottom = Integer.MAX_VALUE;
+        for (int i = 0; i < pipes.size(); i++) {
+            int x = pipes.x(i);
+            if (x >= FlappyEngine.HIT_RIGHT) {
+                break;
+            }
+            if (x + FlappyEngine.PIPE_WIDTH > FlappyEngine.HIT_LEFT) {
+                safeTop = Math.max(safeTop, pipes.topHeight(i));
+                safeBottom = Math.min(safeBottom, pipes.topHeight(i) + pipes.gap(i));
+            }
+        }
+
+        int died = 0;
+        for (int i = 0; i < size; i++) {
+            if (!alive[i]) {
+                continue;
+            }
+            int y = birdY[i];
+            boolean dead;
+            if (y >= GROUND_Y) {
+                // Ground collision - with some margin
+                y = GROUND_Y;
+                dead = true;
+            } else {
+                // Ceiling collision - very soft
+                if (y <= 5) {
+                    y = 5;
+                    birdVelocity[i] = 0;
+                }
+                int top = y + FlappyEngine.HIT_INSET;
+                dead = top < safeTop || top + FlappyEngine.HIT_HEIGHT > safeBottom;
+            }
+            birdY[i] = y;
+            if (dead) {
+                alive[i] = false;
+                diedThisTick[died++] = i;
+            }
+        }
+        aliveCount -= died;
+
+        // A bird that dies on the tick it clears a pipe still gets the point, as in the engine
+        int next = (int) (nextToScore - pipes.headSeq());
+        if (next >= 0 && next < pipes.size() && FlappyEngine.BIRD_X > pipes.x(next) + FlappyEngine.PIPE_WIDTH) {
+            score++;
+            nextToScore++;
+        }
+        for (int j = 0; j < died; j++) {
+            finalScore[diedThisTick[j]] = score;
+        }
+        tick++;
+    }
+
+    int size() { return size; }
+    int aliveCount() { return aliveCount; }
+    boolean isAlive(int i) { return alive[i]; }
+    int birdY(int i) { return birdY[i]; }
+    int prevBirdY(int i) { return prevBirdY[i]; }
+    int birdVelocity(int i) { return birdVelocity[i]; }
+    int score(int i) { return alive[i] ? score : finalScore[i]; }
+    int getScore() { return score; }
+    int getLastScroll() { return lastScroll; }
+    long getTick() { return tick; }
+    PipeField getPipes() { return pipes; }
+
+    // Index of the first pair the birds haven't flown past yet, or -1
+    int nextPipe() {
+        for (int i = 0; i < pipes.size(); i++) {
+            if (pipes.x(i) + FlappyEngine.PIPE_WIDTH >= FlappyEngine.BIRD_X) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Demo population: the engine autopilot with a per-bird aim offset, so birds spread out
+    // and die at different pipes. offsets[i] comes from makeOffsets.
+    void autopilot(int[] offsets, boolean[] flaps) {
+        int next = nextPipe();
+        int target = next < 0 ? FlappyEngine.HEIGHT / 2 : pipes.topHeight(next) + pipes.gap(next) / 2;
+        for (int i = 0; i < size; i++) {
+            flaps[i] = birdY[i] + FlappyEngine.BIRD_HEIGHT / 2 > target + offsets[i] && birdVelocity[i] >= 0;
+        }
+    }
+
+    static int[] makeOffsets(int size, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] offsets = new int[size];
+        for (int i = 0; i < size; i++) {
+            offsets[i] = random.nextInt(-140, 140);
+        }
+        return offsets;
+    }
+
+    // java org.example.FlappyCrowd [birds] [seed]
+    public static void main(String[] args) {
+        int birds = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42L;
+
+        FlappyCrowd crowd = new FlappyCrowd(birds, seed);
+        int[] offsets = makeOffsets(birds, seed);
+        boolean[] flaps = new boolean[birds];
+        long start = System.nanoTime();
+        while (crowd.aliveCount() > 0 && crowd.getTick() < 100_000) {
+            crowd.autopilot(offsets, flaps);
+            crowd.step(flaps);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        int best = 0;
+        for (int i = 0; i < birds; i++) {
+            best = Math.max(best, crowd.score(i));
+        }
+        System.out.printf("%d birds, %d ticks, best score %d%n", birds, crowd.getTick(), best);
+        System.out.printf("%.1f M bird-ticks/s%n", (double) birds * crowd.getTick() / seconds / 1e6);
+    }
+}
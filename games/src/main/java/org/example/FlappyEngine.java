@@ -0,0 +1,228 @@
+package org.example;
+
+// Headless Flappy Bird simulation. No Swing in here - GamePanel only draws it.
+class FlappyEngine {
+    static final int WIDTH = 800;
+    static final int HEIGHT = 600;
+    static final int GROUND_HEIGHT = 40;
+
+    static final int BIRD_X = 100;
+    static final int BIRD_START_Y = 250;
+    static final int BIRD_WIDTH = 40;
+    static final int BIRD_HEIGHT = 30;
+    static final int GRAVITY = 1;
+    static final int JUMP = -12; // Balanced jump
+    static final long TICK_NANOS = 20_000_000L; // Real time per step(): 50 ticks/s, same pace as the old Swing Timer
+
+    static final int PIPE_GAP = 250; // MUCH BIGGER GAP - EASY MODE
+    static final int PIPE_WIDTH = 70; // Thinner pipes
+    static final int PIPE_SPEED = 3; // Slower speed
+    static final int PIPE_SPACING = 350; // More space between pipes - EASIER
+
+    // Bird collision box is SMALLER than the sprite (easier to pass)
+    static final int HIT_LEFT = BIRD_X + 5;
+    static final int HIT_RIGHT = BIRD_X + BIRD_WIDTH - 5;
+    static final int HIT_INSET = 5;
+    static final int HIT_HEIGHT = BIRD_HEIGHT - 10;
+
+    private int birdY;
+    private int prevBirdY;
+    private int birdVelocity;
+    private int lastScroll;
+    private boolean gameOver;
+    private int score;
+    private int highScore;
+    private long tick;
+    private long seed;
+    private long nextToScore; // Sequence number of the first pair the bird hasn't passed
+
+    private final PipeField pipes;
+
+    FlappyEngine() {
+        this(System.nanoTime());
+    }
+
+    FlappyEngine(long seed) {
+        this(seed, DifficultyCurve.Preset.CLASSIC);
+    }
+
+    FlappyEngine(long seed, DifficultyCurve curve) {
+        this(seed, curve, 2 * PIPE_SPACING);
+    }
+
+    // Pairs spawn as the curve says until the course reaches horizon px. A huge horizon
+    // keeps thousands of pairs alive at once, which is how the stress mode is built.
+    FlappyEngine(long seed, DifficultyCurve curve, int horizon) {
+        pipes = new PipeField(curve, horizon);
+        reset(seed);
+    }
+
+    static FlappyEngine stress(long seed, int liveObstacles) {
+        int spacing = PIPE_WIDTH + BIRD_WIDTH;
+        return new FlappyEngine(seed, DifficultyCurve.constant(spacing, PIPE_GAP, PIPE_SPEED),
+                WIDTH + liveObstacles * spacing);
+    }
+
+    void reset(long seed) {
+        this.seed = seed;
+        birdY = BIRD_START_Y;
+        prevBirdY = birdY;
+        lastScroll = 0;
+        birdVelocity = 0;
+        score = 0;
+        gameOver = false;
+        tick = 0;
+        nextToScore = 0;
+        pipes.reset(seed);
+    }
+
+    // Jumps to a state reported by another engine on the same course. The pipes only depend on
+    // the seed and the tick, so they're fast-forwarded; the bird and the score are set as given.
+    void restore(long seed, long tick, int birdY, int birdVelocity, int score, int highScore, boolean gameOver) {
+        reset(seed);
+        for (long i = 0; i < tick; i++) {
+            pipes.advance(pipes.speed());
+        }
+        this.tick = tick;
+        this.birdY = birdY;
+        prevBirdY = birdY;
+        this.birdVelocity = birdVelocity;
+        this.score = score;
+        nextToScore = score; // One pair passed per point
+        this.highScore = highScore;
+        this.gameOver = gameOver;
+    }
+
+    // Advances the world by one tick. Does nothing once the bird is dead.
+    void step(boolean flap) {
+        prevBirdY = birdY;
+        lastScroll = 0;
+        if (gameOver) {
+            return;
+        }
+        if (flap) {
+            birdVelocity = JUMP;
+        }
+
+        // Apply gravity (softer)
+        birdVelocity += GRAVITY;
+        birdY += birdVelocity;
+
+        movePipes();
+        checkCollisions();
+        updateScore();
+        tick++;
+    }
+
+    private void movePipes() {
+        lastScroll = pipes.speed();
+        pipes.advance(lastScroll);
+    }
+
+    private void checkCollisions() {
+        // Ground collision - with some margin
+        if (birdY >= HEIGHT - BIRD_HEIGHT - GROUND_HEIGHT) {
+            gameOver = true;
+            birdY = HEIGHT - BIRD_HEIGHT - GROUND_HEIGHT;
+            return;
+        }
+
+        // Ceiling collision - very soft
+        if (birdY <= 5) {
+            birdY = 5;
+            birdVelocity = 0;
+        }
+
+        if (hitsPipe(pipes, birdY)) {
+            gameOver = true;
+        }
+    }
+
+    // Broadphase over the x-sorted pairs: only the ones overlapping the bird's x-range get
+    // the box test. The loop stops at the first pair starting right of the bird.
+    static boolean hitsPipe(PipeField pipes, int birdY) {
+        int top = birdY + HIT_INSET;
+        int bottom = top + HIT_HEIGHT;
+        int n = pipes.size();
+        for (int i = 0; i < n; i++) {
+            int x = pipes.x(i);
+            if (x >= HIT_RIGHT) {
+                break;
+            }
+            if (x + PIPE_WIDTH > HIT_LEFT) {
+                int height = pipes.topHeight(i);
+                // Top pipe spans [0, height), bottom pipe spans [height + gap, HEIGHT)
+                if ((top < height && bottom > 0) || (top < HEIGHT && bottom > height + pipes.gap(i))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void updateScore() {
+        // Check if bird passed a pipe; at most one per tick
+        int i = (int) (nextToScore - pipes.headSeq());
+        if (i >= 0 && i < pipes.size() && BIRD_X > pipes.x(i) + PIPE_WIDTH) {
+            score++;
+            nextToScore++;
+            if (score > highScore) {
+                highScore = score;
+            }
+        }
+    }
+
+    int getBirdY() { return birdY; }
+    int getPrevBirdY() { return prevBirdY; }
+    int getBirdVelocity() { return birdVelocity; }
+    // How far the pipes moved during the last step, for render interpolation
+    int getLastScroll() { return lastScroll; }
+    boolean isGameOver() { return gameOver; }
+    int getScore() { return score; }
+    int getHighScore() { return highScore; }
+    // Carries a best score over from an earlier run of the game
+    void restoreHighScore(int best) { highScore = Math.max(highScore, best); }
+    long getTick() { return tick; }
+    long getSeed() { return seed; }
+    PipeField getPipes() { return pipes; }
+    DifficultyCurve getCurve() { return pipes.curve(); }
+
+    // Index of the first pair the bird has not flown past yet, or -1
+    int nextPipe() {
+        for (int i = 0; i < pipes.size(); i++) {
+            if (pipes.x(i) + PIPE_WIDTH >= BIRD_X) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Flap whenever the bird sinks below the middle of the next gap.
+    static boolean autopilot(FlappyEngine engine) {
+        int next = engine.nextPipe();
+        int target = next < 0 ? HEIGHT / 2 : engine.pipes.topHeight(next) + engine.pipes.gap(next) / 2;
+        return engine.birdY + BIRD_HEIGHT / 2 > target + 20 && engine.birdVelocity >= 0;
+    }
+
+    // Headless run for CI boxes: java org.example.FlappyEngine [seed] [ticks] [stress obstacles]
+    public static void main(String[] args) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 42L;
+        long ticks = args.length > 1 ? Long.parseLong(args[1]) : 10_000_000L;
+        int stress = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+
+        FlappyEngine engine = stress > 0 ? stress(seed, stress) : new FlappyEngine(seed);
+        long games = 1;
+        long start = System.nanoTime();
+        for (long i = 0; i < ticks; i++) {
+            if (engine.isGameOver()) {
+                engine.reset(seed + games++);
+            }
+            engine.step(autopilot(engine));
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d ticks, %d games, high score %d, %d live pipe pairs%n",
+                ticks, games, engine.getHighScore(), engine.getPipes().size());
+        System.out.printf("%.1f Mticks/s%n", ticks / seconds / 1e6);
+    }
+}
@@ -0,0 +1,505 @@
+package org.example;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+// Draws a FlappyEngine. Everything that doesn't move per frame is rasterized once into
+// sprites, and text layers are only redrawn when the number in them changes.
+//
+// The world is always the engine's 800x600; setViewport() fits it into the actual surface
+// (letterboxed) with one scale and origin. Sprites are rasterized at that scale, so a frame
+// is plain unscaled blits at any resolution, and they're only redrawn when the scale changes.
+class FlappyRenderer {
+    static final Color SKY_COLOR = new Color(135, 206, 235);
+    private static final Color BIRD_COLOR = new Color(255, 204, 0);
+    private static final Color PIPE_COLOR = new Color(76, 175, 80);
+    private static final Color GROUND_COLOR = new Color(160, 120, 80);
+    private static final Color TEXT_COLOR = Color.WHITE;
+    private static final Color GAP_COLOR = new Color(255, 255, 0, 100); // Semi-transparent yellow
+    private static final Color SHADE_COLOR = new Color(0, 0, 0, 150);
+    private static final Color BAR_COLOR = Color.BLACK;
+
+    private static final Font SCORE_FONT = new Font("Arial", Font.BOLD, 36);
+    private static final Font INFO_FONT = new Font("Arial", Font.PLAIN, 14);
+    private static final Font TITLE_FONT = new Font("Arial", Font.BOLD, 48);
+    private static final Font RESULT_FONT = new Font("Arial", Font.BOLD, 32);
+    private static final Font HINT_FONT = new Font("Arial", Font.PLAIN, 24);
+    private static final Font OVERLAY_FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+
+    private static final int WING_FRAMES = 11; // Wing bobs -5..+5 px
+    private static final int PAD = 2; // Room for antialiased edges around sprites
+    private static final int GROUND_Y = FlappyEngine.HEIGHT - FlappyEngine.GROUND_HEIGHT;
+
+    private final GraphicsConfiguration config;
+
+    // World to device: device = origin + world * scale
+    private int viewWidth, viewHeight;
+    private double scale;
+    private int originX, originY;
+
+    // Rasterized at the current scale
+    private BufferedImage pipeBody, topCap, bottomCap, gapMarker;
+    private final BufferedImage[] birdFrames = new BufferedImage[WING_FRAMES];
+    private BufferedImage ground;
+    // The start and game over screens are a few lines each rather than full-screen layers:
+    // translucent blits cost per pixel, and most of a full-screen layer would be empty
+    private Label[] startScreen;
+
+    // Text layers, re-rasterized only when their value (or the scale) changes
+    private Label scoreLayer, highLayer, aliveLayer;
+    private int scoreShown, highShown, aliveShown;
+    private Label toastLayer;
+    private String toastShown;
+    // Nothing moves once the game is over, so that screen is drawn once, shade and all, and
+    // blitted after that; shading the whole world every frame costs more than the world itself
+    private BufferedImage gameOverFrame;
+
+    // A line of text rasterized at the current scale, and the world position of its top left
+    private static final class Label {
+        final BufferedImage image;
+        final int x, y;
+
+        Label(BufferedImage image, int x, int y) {
+            this.image = image;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    // config may be null when drawing headless into plain BufferedImages. Starts out at 1:1
+    // on an 800x600 surface.
+    FlappyRenderer(GraphicsConfiguration config) {
+        this.config = config;
+        setViewport(FlappyEngine.WIDTH, FlappyEngine.HEIGHT);
+    }
+
+    // Fits the world into a width x height surface. Cheap when nothing changed, so callers
+    // can pass the surface size every frame; a new scale re-rasterizes every layer.
+    void setViewport(int width, int height) {
+        if (width <= 0 || height <= 0 || (width == viewWidth && height == viewHeight)) {
+            return; // Unchanged, or minimized
+        }
+        viewWidth = width;
+        viewHeight = height;
+        double fit = Math.min((double) width / FlappyEngine.WIDTH, (double) height / FlappyEngine.HEIGHT);
+        originX = (width - (int) Math.round(FlappyEngine.WIDTH * fit)) / 2;
+        originY = (height - (int) Math.round(FlappyEngine.HEIGHT * fit)) / 2;
+        if (fit != scale) {
+            scale = fit;
+            rasterize();
+        }
+    }
+
+    // The world to device transform, for anything drawn as shapes rather than sprites
+    AffineTransform worldTransform() {
+        AffineTransform world = AffineTransform.getTranslateInstance(originX, originY);
+        world.scale(scale, scale);
+        return world;
+    }
+
+    private void rasterize() {
+        int w = FlappyEngine.PIPE_WIDTH;
+
+        // Pipe bodies are drawn full height once and clipped to each pipe's height when blitted
+        pipeBody = pipeBody(w, FlappyEngine.HEIGHT);
+        topCap = image(w + 6, 12, Transparency.OPAQUE);
+        fill(topCap, PIPE_COLOR.darker());
+        bottomCap = image(w + 6, 15, Transparency.OPAQUE);
+        fill(bottomCap, PIPE_COLOR.darker());
+
+        // Draw BIG gap indicator (visual helper). Only sky shows through it, so it's blended
+        // onto the sky once here and blitted opaque.
+        int gap = FlappyEngine.PIPE_GAP;
+        gapMarker = image(w, gap, Transparency.OPAQUE);
+        fill(gapMarker, SKY_COLOR);
+        Graphics2D g = begin(gapMarker);
+        g.setColor(GAP_COLOR);
+        g.fillRect(0, 0, w, gap);
+        g.setColor(Color.GREEN);
+        g.setStroke(new BasicStroke(3));
+        g.drawLine(0, gap / 2, w, gap / 2);
+        g.dispose();
+
+        for (int i = 0; i < WING_FRAMES; i++) {
+            birdFrames[i] = bird(i - WING_FRAMES / 2);
+        }
+
+        ground = image(FlappyEngine.WIDTH, FlappyEngine.GROUND_HEIGHT, Transparency.OPAQUE);
+        g = begin(ground);
+        g.translate(0, -GROUND_Y);
+        g.setColor(GROUND_COLOR);
+        g.fillRect(0, GROUND_Y, FlappyEngine.WIDTH, FlappyEngine.GROUND_HEIGHT);
+        g.setFont(INFO_FONT);
+        g.setColor(Color.YELLOW);
+        g.drawString("HUGE Gap: " + FlappyEngine.PIPE_GAP + "px", 25, 580);
+        g.drawString("Slow Speed", 350, 580);
+        g.drawString("Happy Bird! 😊", 600, 580);
+        g.dispose();
+
+        startScreen = new Label[] {
+                // Title, over its shadow
+                label("FLAPPY BIRD", TITLE_FONT, Color.YELLOW, Color.BLACK, -1, -3, 251, 253),
+                // Instructions
+                label("Press SPACE to start", HINT_FONT, Color.WHITE, null, 0, 0, 280, 350),
+                label("Press SPACE to flap", HINT_FONT, Color.WHITE, null, 0, 0, 280, 390),
+        };
+
+        // Text layers follow on their next use
+        scoreShown = highShown = aliveShown = -1;
+        toastShown = null;
+        gameOverFrame = null;
+    }
+
+    // Draws the world between the previous and the current tick; alpha is in [0, 1].
+    // animMillis only drives the wing animation.
+    void render(Graphics2D g2d, FlappyEngine engine, double alpha, long animMillis, boolean started) {
+        if (!engine.isGameOver()) {
+            gameOverFrame = null;
+            drawWorld(g2d, engine, alpha, animMillis);
+            if (!started) {
+                draw(g2d, startScreen);
+            }
+        } else {
+            if (gameOverFrame == null) {
+                Graphics2D g = beginGameOverFrame();
+                drawWorld(g, engine, alpha, animMillis);
+                endGameOverFrame(g, engine.getScore());
+            }
+            g2d.drawImage(gameOverFrame, originX, originY, null);
+        }
+        endWorld(g2d);
+    }
+
+    // Crowd mode: same world, but only up to maxBirds of the living birds are drawn
+    void renderCrowd(Graphics2D g2d, FlappyCrowd crowd, double alpha, long animMillis, boolean started, int maxBirds) {
+        if (crowd.aliveCount() > 0) {
+            gameOverFrame = null;
+            drawCrowd(g2d, crowd, alpha, animMillis, maxBirds);
+            if (!started) {
+                draw(g2d, startScreen);
+            }
+        } else {
+            if (gameOverFrame == null) {
+                Graphics2D g = beginGameOverFrame();
+                drawCrowd(g, crowd, alpha, animMillis, maxBirds);
+                endGameOverFrame(g, crowd.getScore());
+            }
+            g2d.drawImage(gameOverFrame, originX, originY, null);
+        }
+        endWorld(g2d);
+    }
+
+    private void drawWorld(Graphics2D g2d, FlappyEngine engine, double alpha, long animMillis) {
+        beginWorld(g2d);
+        drawPipes(g2d, engine.getPipes(), engine.getLastScroll() * (1 - alpha));
+
+        // Draw bird with happy face (it's easier now!)
+        int prevY = engine.getPrevBirdY();
+        drawBird(g2d, prevY + (engine.getBirdY() - prevY) * alpha, wingFrame(animMillis));
+
+        // Draw score
+        if (engine.getScore() != scoreShown) {
+            scoreShown = engine.getScore();
+            scoreLayer = scoreLabel("Score: " + scoreShown, 25);
+        }
+        if (engine.getHighScore() != highShown) {
+            highShown = engine.getHighScore();
+            highLayer = scoreLabel("High: " + highShown, 625);
+        }
+        draw(g2d, scoreLayer);
+        draw(g2d, highLayer);
+    }
+
+    private void drawCrowd(Graphics2D g2d, FlappyCrowd crowd, double alpha, long animMillis, int maxBirds) {
+        beginWorld(g2d);
+        drawPipes(g2d, crowd.getPipes(), crowd.getLastScroll() * (1 - alpha));
+
+        int alive = crowd.aliveCount();
+        int stride = Math.max(1, (alive + maxBirds - 1) / maxBirds);
+        int wing = wingFrame(animMillis);
+        for (int i = 0, seen = 0; i < crowd.size(); i++) {
+            if (crowd.isAlive(i) && seen++ % stride == 0) {
+                int prevY = crowd.prevBirdY(i);
+                drawBird(g2d, prevY + (crowd.birdY(i) - prevY) * alpha, wing);
+            }
+        }
+
+        if (crowd.getScore() != scoreShown) {
+            scoreShown = crowd.getScore();
+            scoreLayer = scoreLabel("Score: " + scoreShown, 25);
+        }
+        if (alive != aliveShown) {
+            aliveShown = alive;
+            aliveLayer = scoreLabel("Alive: " + alive, 560);
+        }
+        draw(g2d, scoreLayer);
+        draw(g2d, aliveLayer);
+    }
+
+    // The sky is filled by drawPipes, around the pipes
+    private void beginWorld(Graphics2D g2d) {
+        g2d.drawImage(ground, originX, toY(GROUND_Y), null);
+    }
+
+    // Letterbox bars go on last and cover whatever was drawn past the edge of the world,
+    // which is cheaper than clipping every blit to it
+    private void endWorld(Graphics2D g2d) {
+        int right = toX(FlappyEngine.WIDTH), bottom = toY(FlappyEngine.HEIGHT);
+        g2d.setColor(BAR_COLOR);
+        if (originY > 0 || bottom < viewHeight) {
+            g2d.fillRect(0, 0, viewWidth, originY);
+            g2d.fillRect(0, bottom, viewWidth, viewHeight - bottom);
+        }
+        if (originX > 0 || right < viewWidth) {
+            g2d.fillRect(0, originY, originX, bottom - originY);
+            g2d.fillRect(right, originY, viewWidth - right, bottom - originY);
+        }
+    }
+
+    // Graphics on a fresh gameOverFrame, in the same device coordinates as the screen
+    private Graphics2D beginGameOverFrame() {
+        gameOverFrame = image(FlappyEngine.WIDTH, FlappyEngine.HEIGHT, Transparency.OPAQUE);
+        Graphics2D g = gameOverFrame.createGraphics();
+        g.translate(-originX, -originY);
+        return g;
+    }
+
+    private void endGameOverFrame(Graphics2D g, int score) {
+        g.setColor(SHADE_COLOR);
+        g.fillRect(originX, originY, toX(FlappyEngine.WIDTH) - originX, toY(FlappyEngine.HEIGHT) - originY);
+        draw(g, gameOver(score));
+        g.dispose();
+    }
+
+    private void draw(Graphics2D g2d, Label label) {
+        g2d.drawImage(label.image, toX(label.x), toY(label.y), null);
+    }
+
+    private void draw(Graphics2D g2d, Label[] labels) {
+        for (Label label : labels) {
+            draw(g2d, label);
+        }
+    }
+
+    // Debug overlay: plain drawString in world coordinates, the text changes every frame anyway
+    void drawOverlay(Graphics2D g2d, String[] lines) {
+        AffineTransform saved = g2d.getTransform();
+        g2d.transform(worldTransform());
+        g2d.setFont(OVERLAY_FONT);
+        int lineHeight = 15;
+        g2d.setColor(SHADE_COLOR);
+        g2d.fillRect(20, 65, 340, lines.length * lineHeight + 10);
+        g2d.setColor(TEXT_COLOR);
+        for (int i = 0; i < lines.length; i++) {
+            g2d.drawString(lines[i], 28, 80 + i * lineHeight);
+        }
+        g2d.setTransform(saved);
+    }
+
+    // A short message at the top of the screen, faded by opacity; drawn over the game instead
+    // of popping up a dialog, so play carries on underneath it
+    void drawToast(Graphics2D g2d, String text, float opacity) {
+        if (!text.equals(toastShown)) {
+            toastLayer = label(text, HINT_FONT, TEXT_COLOR, Color.BLACK, 2, 2, 0, 0);
+            toastShown = text;
+        }
+        int w = toastLayer.image.getWidth(), h = toastLayer.image.getHeight();
+        int x = (viewWidth - w) / 2, y = toY(20);
+        int padX = length(14), padY = length(6);
+        Composite composite = g2d.getComposite();
+        g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, opacity));
+        g2d.setColor(SHADE_COLOR);
+        g2d.fillRoundRect(x - padX, y - padY, w + 2 * padX, h + 2 * padY, length(20), length(20));
+        g2d.drawImage(toastLayer.image, x, y, null);
+        g2d.setComposite(composite);
+    }
+
+    // Pipe x positions stay fractional until they're in device pixels, so the scroll is as
+    // smooth as the resolution allows.
+    //
+    // Body, gap marker and body cover a pipe's column top to bottom with opaque pixels, so the
+    // sky is only filled in the spans between pipes: filling is most of a frame's cost at high
+    // resolutions. The caps stick out past the column and go on in a second pass.
+    private void drawPipes(Graphics2D g2d, PipeField pipes, double scrollBack) {
+        int w = FlappyEngine.PIPE_WIDTH;
+        int top = toY(0), bottom = toY(FlappyEngine.HEIGHT), skyBottom = toY(GROUND_Y);
+        int sky = originX; // Sky is filled up to here
+        int first = 0, end = pipes.size();
+        g2d.setColor(SKY_COLOR);
+        for (int i = 0; i < pipes.size(); i++) {
+            double x = pipes.x(i) + scrollBack;
+            if (x - 5 >= FlappyEngine.WIDTH) {
+                end = i;
+                break; // Pairs are in x order; the rest are off screen
+            }
+            if (x + w + 3 < 0) {
+                first = i + 1;
+                continue;
+            }
+            int left = toX(x), right = toX(x + w);
+            if (left > sky) {
+                g2d.fillRect(sky, top, left - sky, skyBottom - top);
+            }
+            sky = Math.max(sky, right);
+            int height = pipes.topHeight(i);
+            int gap = pipes.gap(i);
+            int gapTop = toY(height), gapBottom = toY(height + gap);
+            // Top pipe; source and destination are the same size, so this is a straight copy
+            g2d.drawImage(pipeBody, left, top, right, gapTop, 0, 0, right - left, gapTop - top, null);
+            if (gap == FlappyEngine.PIPE_GAP) {
+                g2d.drawImage(gapMarker, left, gapTop, right, gapBottom, 0, 0, right - left, gapBottom - gapTop, null);
+            } else {
+                // Curves narrow the gap; stretching the marker is close enough for a visual helper
+                g2d.drawImage(gapMarker, left, gapTop, right - left, gapBottom - gapTop, null);
+            }
+            // Bottom pipe
+            g2d.drawImage(pipeBody, left, gapBottom, right, bottom, 0, 0, right - left, bottom - gapBottom, null);
+        }
+        int worldRight = toX(FlappyEngine.WIDTH);
+        if (worldRight > sky) {
+            g2d.fillRect(sky, top, worldRight - sky, skyBottom - top);
+        }
+
+        for (int i = first; i < end; i++) {
+            double x = pipes.x(i) + scrollBack;
+            int gapBottom = toY(pipes.topHeight(i) + pipes.gap(i));
+            g2d.drawImage(topCap, toX(x - 5), top, null);
+            g2d.drawImage(topCap, toX(x - 5), gapBottom, null);
+            g2d.drawImage(bottomCap, toX(x - 3), toY(FlappyEngine.HEIGHT - 15), null);
+        }
+    }
+
+    private int wingFrame(long animMillis) {
+        return (int) Math.floor(Math.sin(animMillis / 100.0) * 5) + WING_FRAMES / 2;
+    }
+
+    private void drawBird(Graphics2D g2d, double birdY, int wingFrame) {
+        g2d.drawImage(birdFrames[wingFrame], toX(FlappyEngine.BIRD_X - PAD), toY(birdY - PAD), null);
+    }
+
+    private BufferedImage pipeBody(int w, int h) {
+        // A spare device pixel each way: a pipe's rounded edges can land one further apart
+        BufferedImage img = image(w + 1 / scale, h + 1 / scale, Transparency.OPAQUE);
+        Graphics2D g = begin(img);
+        // Draw pipe with gradient (looks nicer), spread over a typical pipe length
+        g.setPaint(new GradientPaint(0, 0, PIPE_COLOR.brighter(), w, h / 3f, PIPE_COLOR.darker()));
+        g.fillRect(0, 0, w, h);
+        g.dispose();
+        return img;
+    }
+
+    private BufferedImage bird(int wingOffset) {
+        int w = FlappyEngine.BIRD_WIDTH;
+        int h = FlappyEngine.BIRD_HEIGHT;
+        BufferedImage img = image(w + 10 + 2 * PAD, h + 2 * PAD, Transparency.TRANSLUCENT);
+        Graphics2D g = begin(img);
+        g.translate(PAD, PAD);
+
+        g.setColor(BIRD_COLOR);
+        g.fillOval(0, 0, w, h);
+
+        // Draw wing
+        g.setColor(BIRD_COLOR.darker());
+        g.fillArc(5, wingOffset + 5, w - 10, h - 10, 0, 180);
+
+        // Draw happy eye
+        g.setColor(Color.BLACK);
+        g.fillOval(w - 15, 8, 8, 8);
+        g.setColor(Color.WHITE);
+        g.fillOval(w - 14, 9, 2, 2);
+
+        // Draw smile (happy bird!)
+        g.setColor(Color.BLACK);
+        g.drawArc(10, 15, 15, 10, 0, -180);
+
+        // Draw beak
+        g.setColor(Color.ORANGE);
+        int[] xPoints = {w - 5, w + 10, w - 5};
+        int[] yPoints = {h / 2, h / 2, h / 2 + 5};
+        g.fillPolygon(xPoints, yPoints, 3);
+        g.dispose();
+        return img;
+    }
+
+    // The shade behind it is filled by endGameOverFrame
+    private Label[] gameOver(int score) {
+        Label title = label("GAME OVER", TITLE_FONT, Color.RED, Color.BLACK, 3, 3, 200, 250);
+        // Score with celebration
+        Label result = label("Score: " + score, RESULT_FONT, Color.WHITE, null, 0, 0, 300, 320);
+        // Restart instructions
+        Label restart = label("Press SPACE to restart", HINT_FONT, Color.GREEN, null, 0, 0, 280, 420);
+        if (score > 5) {
+            Label cheer = label("🎉 GREAT JOB! 🎉", RESULT_FONT, Color.WHITE, null, 0, 0, 280, 360);
+            return new Label[] {title, result, cheer, restart};
+        }
+        return new Label[] {title, result, restart};
+    }
+
+    // Score-style text: white with a black drop shadow 2 px down and right
+    private Label scoreLabel(String text, int x) {
+        return label(text, SCORE_FONT, TEXT_COLOR, Color.BLACK, 2, 2, x, 50);
+    }
+
+    // Text at (x, baseline) in the world, over a copy of itself in `shadow` offset by
+    // (shadowX, shadowY), either way; shadow may be null
+    private Label label(String text, Font font, Color color, Color shadow, int shadowX, int shadowY, int x, int baseline) {
+        if (shadow == null) {
+            shadowX = shadowY = 0;
+        }
+        FontMetrics fm = metrics(font);
+        int left = Math.min(0, shadowX) - PAD, top = Math.min(0, shadowY) - fm.getAscent() - PAD;
+        int w = fm.stringWidth(text) + Math.abs(shadowX) + 2 * PAD;
+        int h = fm.getAscent() + fm.getDescent() + Math.abs(shadowY) + 2 * PAD;
+        BufferedImage img = image(w, h, Transparency.TRANSLUCENT);
+        Graphics2D g = begin(img);
+        g.translate(-left, -top);
+        g.setFont(font);
+        if (shadow != null) {
+            g.setColor(shadow);
+            g.drawString(text, shadowX, shadowY);
+        }
+        g.setColor(color);
+        g.drawString(text, 0, 0);
+        g.dispose();
+        return new Label(img, x + left, baseline + top);
+    }
+
+    // Metrics in world units, but for glyphs hinted at the current scale, which can come out
+    // wider than the 1:1 ones scaled up
+    private FontMetrics metrics(Font font) {
+        Graphics2D g = begin(new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB));
+        FontMetrics fm = g.getFontMetrics(font);
+        g.dispose();
+        return fm;
+    }
+
+    private int toX(double x) { return originX + (int) Math.round(x * scale); }
+    private int toY(double y) { return originY + (int) Math.round(y * scale); }
+    private int length(double d) { return (int) Math.round(d * scale); }
+
+    // An image covering w x h of the world at the current scale; begin() draws on it in world units
+    private BufferedImage image(double w, double h, int transparency) {
+        int width = (int) Math.ceil(w * scale), height = (int) Math.ceil(h * scale);
+        if (config != null) {
+            return config.createCompatibleImage(width, height, transparency);
+        }
+        // Premultiplied sources blend onto the frame without a conversion per pixel
+        return new BufferedImage(width, height, transparency == Transparency.OPAQUE
+                ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE);
+    }
+
+    private Graphics2D begin(BufferedImage img) {
+        Graphics2D g = img.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.scale(scale, scale);
+        return g;
+    }
+
+    private static void fill(BufferedImage img, Color color) {
+        Graphics2D g = img.createGraphics();
+        g.setColor(color);
+        g.fillRect(0, 0, img.getWidth(), img.getHeight());
+        g.dispose();
+    }
+}
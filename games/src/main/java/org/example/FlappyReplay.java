@@ -0,0 +1,247 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// A recorded run: the course seed plus the ticks the bird flapped on. The engine is
+// deterministic, so that is enough to replay the run exactly or to check a claimed score.
+//
+// File layout (big-endian):
+//   int magic 'FLPY', byte version, byte finished, byte course (DifficultyCurve.Preset ordinal),
+//   long seed, int ticks, int score, int flaps,
+//   then one unsigned LEB128 varint per flap: the gap in ticks since the previous flap
+//   (the first one counts from tick 0). A typical flap costs one byte.
+class FlappyReplay {
+    static final int MAGIC = 0x464C5059; // "FLPY"
+    static final byte VERSION = 2; // 2 added the course byte
+    static final String EXTENSION = ".flpr";
+    private static final int HEADER = 4 + 1 + 1 + 1 + 8 + 4 + 4 + 4;
+
+    final DifficultyCurve.Preset course;
+    final long seed;
+    final int ticks;
+    final int score;
+    final int flaps;
+    final boolean finished; // Ended in a crash rather than being cut off
+    private final ByteBuffer deltas;
+
+    private FlappyReplay(DifficultyCurve.Preset course, long seed, int ticks, int score, int flaps, boolean finished,
+                         ByteBuffer deltas) {
+        this.course = course;
+        this.seed = seed;
+        this.ticks = ticks;
+        this.score = score;
+        this.flaps = flaps;
+        this.finished = finished;
+        this.deltas = deltas;
+    }
+
+    // Collects a run as it is played. Only flaps cost anything: a varint appended to an array.
+    static final class Recorder {
+        private long seed;
+        private byte[] bytes = new byte[256];
+        private int length;
+        private int flaps;
+        private long lastFlap;
+
+        void start(long seed) {
+            this.seed = seed;
+            length = 0;
+            flaps = 0;
+            lastFlap = 0;
+        }
+
+        // tick is the engine tick the flap is applied on, i.e. getTick() before step
+        void flap(long tick) {
+            if (length + 5 > bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            long gap = tick - lastFlap;
+            lastFlap = tick;
+            while (gap >= 0x80) {
+                bytes[length++] = (byte) (gap | 0x80);
+                gap >>>= 7;
+            }
+            bytes[length++] = (byte) gap;
+            flaps++;
+        }
+
+        // Only runs on a preset course can be saved; the file names the course by ordinal
+        FlappyReplay finish(FlappyEngine engine) {
+            if (!(engine.getCurve() instanceof DifficultyCurve.Preset)) {
+                throw new IllegalStateException("Cannot record a run on a custom course");
+            }
+            return new FlappyReplay((DifficultyCurve.Preset) engine.getCurve(), seed, (int) engine.getTick(), engine.getScore(), flaps, engine.isGameOver(),
+                    ByteBuffer.wrap(Arrays.copyOf(bytes, length)).asReadOnlyBuffer());
+        }
+    }
+
+    // Walks the flap ticks in order; ask it once per tick
+    final class Cursor {
+        private final ByteBuffer in = deltas.duplicate();
+        private int left = flaps;
+        private long nextFlap = left > 0 ? readVarint(in) : -1;
+
+        boolean flap(long tick) {
+            if (tick != nextFlap) {
+                return false;
+            }
+            nextFlap = --left > 0 ? nextFlap + readVarint(in) : -1;
+            return true;
+        }
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    private static long readVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    // Headless fast-forward: replays every tick and checks the run ends where the file says
+    boolean verify() {
+        FlappyEngine engine = new FlappyEngine(seed, course);
+        Cursor cursor = cursor();
+        try {
+            while (engine.getTick() < ticks && !engine.isGameOver()) {
+                engine.step(cursor.flap(engine.getTick()));
+            }
+        } catch (BufferUnderflowException e) {
+            return false; // Flap count promises more varints than the file holds
+        }
+        return engine.getTick() == ticks && engine.getScore() == score && engine.isGameOver() == finished
+                && cursor.left == 0;
+    }
+
+    void write(Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER);
+        header.putInt(MAGIC).put(VERSION).put((byte) (finished ? 1 : 0)).put((byte) course.ordinal())
+                .putLong(seed).putInt(ticks).putInt(score).putInt(flaps).flip();
+        ByteBuffer body = deltas.duplicate();
+        body.rewind();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer[] buffers = {header, body};
+            while (header.hasRemaining() || body.hasRemaining()) {
+                channel.write(buffers);
+            }
+        }
+    }
+
+    static FlappyReplay read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    // Parses a replay in place; the flap bytes are not copied, so a mapped file stays mapped
+    static FlappyReplay read(ByteBuffer in) throws IOException {
+        if (in.remaining() < HEADER || in.getInt() != MAGIC) {
+            throw new IOException("Not a Flappybird replay");
+        }
+        byte version = in.get();
+        if (version != VERSION) {
+            throw new IOException("Unsupported replay version " + version);
+        }
+        boolean finished = in.get() != 0;
+        int course = in.get();
+        if (course < 0 || course >= DifficultyCurve.Preset.values().length) {
+            throw new IOException("Unknown course " + course);
+        }
+        long seed = in.getLong();
+        int ticks = in.getInt();
+        int score = in.getInt();
+        int flaps = in.getInt();
+        return new FlappyReplay(DifficultyCurve.Preset.values()[course], seed, ticks, score, flaps, finished, in.slice().asReadOnlyBuffer());
+    }
+
+    String fileName() {
+        return "flappy-" + System.currentTimeMillis() + "-" + score + EXTENSION;
+    }
+
+    // java org.example.FlappyReplay verify <file or directory>
+    // java org.example.FlappyReplay record <directory> [games] [max ticks] [course]   (autopilot runs)
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 2 && args[0].equals("record")) {
+            record(Paths.get(args[1]), args.length > 2 ? Integer.parseInt(args[2]) : 10,
+                    args.length > 3 ? Integer.parseInt(args[3]) : 200_000,
+                    args.length > 4 ? DifficultyCurve.Preset.valueOf(args[4].toUpperCase()) : DifficultyCurve.Preset.CLASSIC);
+        } else if (args.length >= 2 && args[0].equals("verify")) {
+            verify(Paths.get(args[1]));
+        } else {
+            System.out.println("usage: FlappyReplay verify <file|dir> | record <dir> [games] [max ticks] [course]");
+        }
+    }
+
+    private static void record(Path dir, int games, int maxTicks, DifficultyCurve.Preset course) throws IOException {
+        Files.createDirectories(dir);
+        Recorder recorder = new Recorder();
+        FlappyEngine engine = new FlappyEngine(0, course);
+        for (int g = 0; g < games; g++) {
+            long seed = 1000L + g;
+            engine.reset(seed);
+            recorder.start(seed);
+            while (!engine.isGameOver() && engine.getTick() < maxTicks) {
+                boolean flap = FlappyEngine.autopilot(engine);
+                if (flap) {
+                    recorder.flap(engine.getTick());
+                }
+                engine.step(flap);
+            }
+            FlappyReplay replay = recorder.finish(engine);
+            Path file = dir.resolve("autopilot-" + seed + EXTENSION);
+            replay.write(file);
+            System.out.printf("%s: %d ticks, score %d, %d flaps, %d bytes%n",
+                    file, replay.ticks, replay.score, replay.flaps, Files.size(file));
+        }
+    }
+
+    private static void verify(Path path) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (Files.isDirectory(path)) {
+            try (DirectoryStream<Path> dir = Files.newDirectoryStream(path, "*" + EXTENSION)) {
+                dir.forEach(files::add);
+            }
+        } else {
+            files.add(path);
+        }
+
+        long start = System.nanoTime();
+        long ticks = 0;
+        int bad = 0;
+        for (Path file : files) {
+            try {
+                FlappyReplay replay = read(file);
+                ticks += replay.ticks;
+                if (!replay.verify()) {
+                    bad++;
+                    System.out.println("MISMATCH " + file + " (claims score " + replay.score + ")");
+                }
+            } catch (IOException e) {
+                bad++;
+                System.out.println("UNREADABLE " + file + ": " + e.getMessage());
+            }
+        }
+        double millis = (System.nanoTime() - start) / 1e6;
+        System.out.printf("%d replays, %d ticks verified in %.1f ms (%.1f Mticks/s), %d bad%n",
+                files.size(), ticks, millis, ticks / millis / 1e3, bad);
+    }
+}
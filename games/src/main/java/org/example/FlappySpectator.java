@@ -0,0 +1,173 @@
+package org.example;
+
+import javax.swing.*;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+// Watches a FlappyBroadcast: replays the stream's ticks on a local engine at the game's own
+// pace, so GamePanel renders it like a local game, interpolated at any frame rate.
+//
+// Ticks arrive in bursts (one batch per broadcaster frame), so a couple are kept in hand
+// before playing; if more than MAX_BEHIND pile up, e.g. after the window was dragged, the
+// extra ones are played at once. Keyframes are checked against the local engine, which is
+// only reset to them when it has drifted (or on joining, and when the game restarts).
+//
+// java org.example.FlappySpectator [host:port] [--fps=60|120|240|0]
+class FlappySpectator {
+    private static final int DELAY = 2; // Ticks in hand before playing starts
+    private static final int MAX_BEHIND = 10;
+
+    private final SocketChannel channel;
+    private final ByteBuffer in = ByteBuffer.allocate(16 * 1024); // Read mode between calls
+    private final DifficultyCurve.Preset course;
+    private int ticksInHand; // Complete TICK/FLAP messages in `in`
+    private int scanned; // Bytes of `in` already counted into ticksInHand
+    private boolean playing;
+    private boolean started;
+    private boolean ended;
+    private long resyncs;
+
+    // Blocks until the first keyframe, which names the course
+    FlappySpectator(InetSocketAddress address) throws IOException {
+        channel = SocketChannel.open(address);
+        in.limit(0);
+        while (in.remaining() < FlappyBroadcast.size(FlappyBroadcast.KEYFRAME)) {
+            if (!fill()) {
+                throw new IOException("The broadcast ended before it started");
+            }
+        }
+        if (in.get(0) != FlappyBroadcast.KEYFRAME) {
+            throw new IOException("Not a Flappybird broadcast");
+        }
+        course = DifficultyCurve.Preset.values()[in.get(1)];
+        channel.configureBlocking(false);
+    }
+
+    DifficultyCurve.Preset course() { return course; }
+    boolean started() { return started; }
+    boolean ended() { return ended; }
+    long resyncs() { return resyncs; } // Keyframes that disagreed with the local engine
+
+    // Once per local tick: reads what has arrived and moves the engine on by one broadcast
+    // tick, or more when behind, or none while waiting for data
+    void play(FlappyEngine engine) {
+        if (!ended) {
+            try {
+                ended = !fill();
+            } catch (IOException e) {
+                ended = true;
+            }
+            if (ended) {
+                closeQuietly();
+            }
+        }
+        countTicks();
+        applyKeyframes(engine);
+        if (ticksInHand == 0) {
+            playing = false;
+        } else if (ticksInHand >= DELAY || ended) {
+            playing = true;
+        }
+        if (!playing) {
+            return;
+        }
+        int steps = ticksInHand > MAX_BEHIND ? ticksInHand - DELAY + 1 : 1;
+        for (int i = 0; i < steps; i++) {
+            engine.step(in.get() == FlappyBroadcast.FLAP);
+            ticksInHand--;
+            scanned--;
+            applyKeyframes(engine);
+        }
+    }
+
+    // Reads whatever the socket has; false once the broadcaster hung up
+    private boolean fill() throws IOException {
+        in.compact();
+        int n = channel.read(in);
+        in.flip();
+        return n >= 0;
+    }
+
+    private void closeQuietly() {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void countTicks() {
+        while (in.position() + scanned < in.limit()) {
+            byte type = in.get(in.position() + scanned);
+            int size = FlappyBroadcast.size(type);
+            if (size < 0) {
+                throw new IllegalStateException("Bad message type " + type);
+            }
+            if (in.position() + scanned + size > in.limit()) {
+                break;
+            }
+            scanned += size;
+            if (type != FlappyBroadcast.KEYFRAME) {
+                ticksInHand++;
+            }
+        }
+    }
+
+    // Keyframes at the front of the stream apply right away; they take no time
+    private void applyKeyframes(FlappyEngine engine) {
+        int size = FlappyBroadcast.size(FlappyBroadcast.KEYFRAME);
+        while (scanned >= size && in.get(in.position()) == FlappyBroadcast.KEYFRAME) {
+            in.get(); // Type
+            if (in.get() != course.ordinal()) {
+                throw new IllegalStateException("The broadcast switched courses");
+            }
+            long seed = in.getLong();
+            long tick = in.getInt();
+            int birdY = in.getShort();
+            int velocity = in.getShort();
+            int score = in.getInt();
+            int high = in.getInt();
+            int flags = in.get();
+            scanned -= size;
+            started = (flags & FlappyBroadcast.STARTED) != 0;
+            boolean over = (flags & FlappyBroadcast.GAME_OVER) != 0;
+            if (engine.getSeed() != seed) {
+                engine.restore(seed, tick, birdY, velocity, score, high, over); // Joining, or a new game
+            } else if (engine.getTick() != tick || engine.getBirdY() != birdY || engine.getBirdVelocity() != velocity
+                    || engine.getScore() != score || engine.isGameOver() != over) {
+                engine.restore(seed, tick, birdY, velocity, score, high, over);
+                resyncs++;
+            } else {
+                engine.restoreHighScore(high);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        String host = "localhost";
+        int port = FlappyBroadcast.DEFAULT_PORT;
+        int targetFps = 60;
+        for (String arg : args) {
+            if (arg.startsWith("--fps=")) {
+                targetFps = Integer.parseInt(arg.substring("--fps=".length()));
+            } else {
+                int colon = arg.lastIndexOf(':');
+                host = colon >= 0 ? arg.substring(0, colon) : arg;
+                port = colon >= 0 ? Integer.parseInt(arg.substring(colon + 1)) : port;
+            }
+        }
+        FlappySpectator spectator = new FlappySpectator(new InetSocketAddress(host, port));
+
+        JFrame frame = new JFrame("Flappy Bird - WATCHING " + host + ":" + port);
+        GamePanel panel = new GamePanel(targetFps, 0, spectator.course());
+        panel.setRecordDir(null);
+        panel.setSpectator(spectator);
+        frame.add(panel);
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.pack();
+        frame.setVisible(true);
+        frame.setLocationRelativeTo(null);
+        panel.start();
+    }
+}
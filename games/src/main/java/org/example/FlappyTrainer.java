@@ -0,0 +1,195 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Evolves FlappyBrain genomes. Each generation breeds and evaluates the population in parallel
+// on the fork-join pool; every leaf task gets its own split of the generation's random stream,
+// so a run is reproducible from its seed no matter how the work is scheduled.
+class FlappyTrainer {
+    private static final int EPISODES = 4; // Courses every genome flies per generation
+    private static final int MAX_TICKS = 20_000; // Cut-off for an episode the bird would never lose
+    private static final int ELITE = 4;
+    private static final int LEAF = 4; // Genomes per fork-join leaf
+    private static final double MUTATION_RATE = 0.15;
+    private static final double MUTATION_SIZE = 0.4;
+
+    private final int populationSize;
+    private final ForkJoinPool pool;
+    private FlappyBrain[] population;
+    private long[] fitness;
+    private final SplittableRandom random;
+    private long episodesRun;
+    private long ticksRun;
+    private boolean solved; // Best genome of the last generation flew every course to MAX_TICKS
+
+    FlappyTrainer(int populationSize, long seed, ForkJoinPool pool) {
+        this.populationSize = populationSize;
+        this.pool = pool;
+        this.random = new SplittableRandom(seed);
+        population = new FlappyBrain[populationSize];
+        fitness = new long[populationSize];
+        for (int i = 0; i < populationSize; i++) {
+            population[i] = FlappyBrain.random(random);
+        }
+    }
+
+    // Runs one generation and returns the fitness of its best genome
+    long generation() {
+        long[] courses = new long[EPISODES];
+        for (int i = 0; i < EPISODES; i++) {
+            courses[i] = random.nextLong();
+        }
+
+        // Rank last generation so breeding can pick parents by index
+        Integer[] order = new Integer[populationSize];
+        for (int i = 0; i < populationSize; i++) {
+            order[i] = i;
+        }
+        long[] oldFitness = fitness;
+        Arrays.sort(order, (a, b) -> Long.compare(oldFitness[b], oldFitness[a]));
+        FlappyBrain[] ranked = new FlappyBrain[populationSize];
+        for (int i = 0; i < populationSize; i++) {
+            ranked[i] = population[order[i]];
+        }
+
+        FlappyBrain[] next = new FlappyBrain[populationSize];
+        long[] nextFitness = new long[populationSize];
+        long[] stats = new long[2 * populationSize]; // episodes and ticks per slot, summed afterwards
+        pool.invoke(new Generation(ranked, next, nextFitness, stats, courses, 0, populationSize, random.split()));
+
+        population = next;
+        fitness = nextFitness;
+        int best = 0;
+        for (int i = 0; i < populationSize; i++) {
+            if (fitness[i] > fitness[best]) {
+                best = i;
+            }
+            episodesRun += stats[2 * i];
+            ticksRun += stats[2 * i + 1];
+        }
+        solved = stats[2 * best + 1] == (long) EPISODES * MAX_TICKS;
+        return fitness[best];
+    }
+
+    FlappyBrain best() {
+        int best = 0;
+        for (int i = 1; i < populationSize; i++) {
+            if (fitness[i] > fitness[best]) {
+                best = i;
+            }
+        }
+        return population[best];
+    }
+
+    // Ticks survived, with every pipe cleared worth a bonus on top
+    static long evaluate(FlappyBrain brain, FlappyEngine engine, long[] courses, long[] stats, int slot) {
+        long total = 0;
+        for (long course : courses) {
+            engine.reset(course);
+            while (!engine.isGameOver() && engine.getTick() < MAX_TICKS) {
+                engine.step(brain.flap(engine));
+            }
+            total += engine.getTick() + 100L * engine.getScore();
+            stats[2 * slot]++;
+            stats[2 * slot + 1] += engine.getTick();
+        }
+        return total;
+    }
+
+    private class Generation extends RecursiveAction {
+        private final FlappyBrain[] parents, children;
+        private final long[] childFitness, stats, courses;
+        private final int from, to;
+        private final SplittableRandom random;
+
+        Generation(FlappyBrain[] parents, FlappyBrain[] children, long[] childFitness, long[] stats,
+                   long[] courses, int from, int to, SplittableRandom random) {
+            this.parents = parents;
+            this.children = children;
+            this.childFitness = childFitness;
+            this.stats = stats;
+            this.courses = courses;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Generation(parents, children, childFitness, stats, courses, from, mid, random.split()),
+                        new Generation(parents, children, childFitness, stats, courses, mid, to, random.split()));
+                return;
+            }
+            FlappyEngine engine = new FlappyEngine(0);
+            for (int i = from; i < to; i++) {
+                children[i] = i < ELITE ? parents[i] : breed();
+                childFitness[i] = evaluate(children[i], engine, courses, stats, i);
+            }
+        }
+
+        private FlappyBrain breed() {
+            FlappyBrain mother = parents[pick()];
+            FlappyBrain father = parents[pick()];
+            float[] genes = new float[FlappyBrain.GENES];
+            for (int g = 0; g < genes.length; g++) {
+                genes[g] = random.nextBoolean() ? mother.genes[g] : father.genes[g];
+                if (random.nextDouble() < MUTATION_RATE) {
+                    genes[g] += (float) (random.nextGaussian() * MUTATION_SIZE);
+                }
+            }
+            return new FlappyBrain(genes);
+        }
+
+        // Tournament of three on the ranked parents: the lowest index wins
+        private int pick() {
+            int a = random.nextInt(parents.length);
+            int b = random.nextInt(parents.length);
+            int c = random.nextInt(parents.length);
+            return Math.min(a, Math.min(b, c));
+        }
+    }
+
+    // java org.example.FlappyTrainer [generations] [population] [out.brain] [seed] [threads]
+    public static void main(String[] args) throws IOException {
+        int generations = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        int populationSize = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+        Path out = Paths.get(args.length > 2 ? args[2] : "best.brain");
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42L;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        FlappyTrainer trainer = new FlappyTrainer(populationSize, seed, pool);
+        System.out.printf("Training %d genomes on %d threads%n", populationSize, pool.getParallelism());
+
+        long start = System.nanoTime();
+        for (int gen = 1; gen <= generations; gen++) {
+            long episodesBefore = trainer.episodesRun;
+            long ticksBefore = trainer.ticksRun;
+            long genStart = System.nanoTime();
+            long best = trainer.generation();
+            double seconds = (System.nanoTime() - genStart) / 1e9;
+
+            System.out.printf("gen %3d  best %8d  %9.0f evals/s  %6.1f Mticks/s%n", gen, best,
+                    (trainer.episodesRun - episodesBefore) / seconds,
+                    (trainer.ticksRun - ticksBefore) / seconds / 1e6);
+            if (trainer.solved) {
+                System.out.println("Every course flown to the tick limit, stopping early");
+                break;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d episodes in %.1f s (%.0f evals/s)%n", trainer.episodesRun, seconds,
+                trainer.episodesRun / seconds);
+
+        trainer.best().save(out);
+        System.out.println("Best genome written to " + out + " - watch it with: Flappybird --brain=" + out);
+    }
+}
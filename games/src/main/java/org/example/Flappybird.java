@@ -0,0 +1,74 @@
+package org.example;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+public class Flappybird {
+    // java org.example.Flappybird [--fps=60|120|240|0] [--crowd=birds] [--brain=file]   (fps 0 = uncapped)
+    //                            [--record=dir|none] [--replay=file] [--course=classic|ramp]
+    //                            [--broadcast=port]   (watch with FlappySpectator)
+    public static void main(String[] args) throws IOException {
+        int targetFps = 60;
+        int crowd = 0;
+        FlappyBrain brain = null;
+        Path recordDir = Paths.get("replays");
+        FlappyReplay replay = null;
+        DifficultyCurve.Preset course = DifficultyCurve.Preset.CLASSIC;
+        int broadcastPort = -1;
+        for (String arg : args) {
+            if (arg.startsWith("--fps=")) {
+                targetFps = Integer.parseInt(arg.substring("--fps=".length()));
+            } else if (arg.startsWith("--crowd=")) {
+                crowd = Integer.parseInt(arg.substring("--crowd=".length()));
+            } else if (arg.startsWith("--brain=")) {
+                brain = FlappyBrain.load(Paths.get(arg.substring("--brain=".length())));
+            } else if (arg.startsWith("--record=")) {
+                String dir = arg.substring("--record=".length());
+                recordDir = dir.equals("none") ? null : Paths.get(dir);
+            } else if (arg.startsWith("--replay=")) {
+                replay = FlappyReplay.read(Paths.get(arg.substring("--replay=".length())));
+            } else if (arg.startsWith("--course=")) {
+                course = DifficultyCurve.Preset.valueOf(arg.substring("--course=".length()).toUpperCase());
+            } else if (arg.startsWith("--broadcast=")) {
+                broadcastPort = Integer.parseInt(arg.substring("--broadcast=".length()));
+            }
+        }
+        if (replay != null) {
+            course = replay.course;
+        }
+
+        JFrame frame = new JFrame(crowd > 0 ? "Flappy Bird - CROWD MODE"
+                : replay != null ? "Flappy Bird - REPLAY" : "Flappy Bird - EASY MODE");
+        GamePanel panel = new GamePanel(targetFps, crowd, course);
+        panel.setBrain(brain);
+        panel.setReplay(replay);
+        panel.setRecordDir(recordDir);
+        if (crowd == 0 && replay == null && brain == null) {
+            // Only a person's runs count. Scores on harder courses don't compete with the classic ones
+            String name = course == DifficultyCurve.Preset.CLASSIC ? "flappybird" : "flappybird-" + course.name().toLowerCase();
+            panel.setStats(StatsStore.open(Paths.get("stats", name)));
+        }
+        if (broadcastPort >= 0 && crowd > 0) {
+            System.err.println("Crowd mode can't be broadcast; playing without it");
+        } else if (broadcastPort >= 0) {
+            FlappyBroadcast broadcast = new FlappyBroadcast(new InetSocketAddress(broadcastPort));
+            Thread thread = new Thread(broadcast, "flappy-broadcast");
+            thread.setDaemon(true);
+            thread.start();
+            panel.setBroadcast(broadcast);
+            System.out.println("Broadcasting on port " + broadcast.port());
+        }
+
+        frame.add(panel);
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.pack(); // Resizable; the world scales to fit, F11 goes full screen
+        frame.setMinimumSize(new Dimension(FlappyEngine.WIDTH / 4, FlappyEngine.HEIGHT / 4));
+        frame.setVisible(true);
+        frame.setLocationRelativeTo(null);
+        panel.start();
+    }
+}
@@ -0,0 +1,279 @@
+package org.example;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Renders a run headlessly to a Y4M video or a PPM image sequence with FlappyRenderer.
+//
+// The simulation is cheap and deterministic, so instead of handing frames from one engine to
+// many renderers, every worker thread owns an engine, a renderer and a canvas and simply
+// fast-forwards its engine to the chunk of frames it was given. Chunks are encoded straight
+// into pooled byte buffers; the calling thread writes them out in order. At most two
+// chunks per thread are in flight, which bounds memory and keeps the buffer pool from running dry.
+class FrameExporter {
+    private static final int CHUNK = 16; // Frames per task
+    private static final int TAIL_TICKS = 50; // Keep filming for a second after the crash
+
+    private final FlappyReplay replay; // null = autopilot
+    private final long seed;
+    private final long endTick; // Last tick of the run, crash included
+    private final int fps, width, height;
+    private final boolean y4m;
+
+    FrameExporter(FlappyReplay replay, long seed, long maxTicks, int fps, double scale, boolean y4m) {
+        this.replay = replay;
+        this.seed = replay != null ? replay.seed : seed;
+        this.fps = fps;
+        this.y4m = y4m;
+        // Y4M 4:2:0 wants even dimensions
+        this.width = (int) (FlappyEngine.WIDTH * scale) & ~1;
+        this.height = (int) (FlappyEngine.HEIGHT * scale) & ~1;
+
+        Flight probe = new Flight();
+        probe.advanceTo(maxTicks);
+        this.endTick = probe.engine.getTick();
+    }
+
+    // One worker's private copy of the run
+    private final class Flight {
+        final FlappyEngine engine = new FlappyEngine(seed, replay != null ? replay.course : DifficultyCurve.Preset.CLASSIC);
+        FlappyReplay.Cursor cursor = replay != null ? replay.cursor() : null;
+
+        void advanceTo(long tick) {
+            if (tick < engine.getTick()) {
+                engine.reset(seed);
+                cursor = replay != null ? replay.cursor() : null;
+            }
+            while (engine.getTick() < tick && !engine.isGameOver()) {
+                engine.step(cursor != null ? cursor.flap(engine.getTick()) : FlappyEngine.autopilot(engine));
+            }
+        }
+    }
+
+    private final class Worker {
+        final Flight flight = new Flight();
+        final FlappyRenderer renderer = new FlappyRenderer(null);
+        final BufferedImage canvas = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        final Graphics2D g2d = canvas.createGraphics();
+        final int[] pixels = ((DataBufferInt) canvas.getRaster().getDataBuffer()).getData();
+
+        Worker() {
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            renderer.setViewport(width, height); // Sprites rasterized at the export size, not scaled up
+        }
+
+        // Frame f shows the world at f / fps seconds, interpolated between ticks like the game loop does
+        void render(int frame, byte[] out) {
+            double ticks = frame * 1000.0 / fps / (FlappyEngine.TICK_NANOS / 1e6);
+            long tick = (long) ticks + 1;
+            flight.advanceTo(tick);
+            double alpha = flight.engine.getTick() < tick ? 1 : ticks - (tick - 1);
+            renderer.render(g2d, flight.engine, alpha, Math.round(frame * 1000.0 / fps), true);
+            if (y4m) {
+                encodeYuv420(out);
+            } else {
+                encodeRgb(out);
+            }
+        }
+
+        private void encodeRgb(byte[] out) {
+            for (int i = 0, o = 0; i < pixels.length; i++) {
+                int p = pixels[i];
+                out[o++] = (byte) (p >> 16);
+                out[o++] = (byte) (p >> 8);
+                out[o++] = (byte) p;
+            }
+        }
+
+        // BT.601 studio range; chroma averaged over each 2x2 block
+        private void encodeYuv420(byte[] out) {
+            int chroma = width * height / 4;
+            int uBase = width * height, vBase = uBase + chroma;
+            for (int y = 0; y < height; y += 2) {
+                for (int x = 0; x < width; x += 2) {
+                    int r = 0, g = 0, b = 0;
+                    for (int dy = 0; dy < 2; dy++) {
+                        for (int dx = 0; dx < 2; dx++) {
+                            int i = (y + dy) * width + x + dx;
+                            int p = pixels[i];
+                            int pr = (p >> 16) & 0xFF, pg = (p >> 8) & 0xFF, pb = p & 0xFF;
+                            out[i] = (byte) (((66 * pr + 129 * pg + 25 * pb + 128) >> 8) + 16);
+                            r += pr;
+                            g += pg;
+                            b += pb;
+                        }
+                    }
+                    r >>= 2;
+                    g >>= 2;
+                    b >>= 2;
+                    int c = (y / 2) * (width / 2) + x / 2;
+                    out[uBase + c] = (byte) (((-38 * r - 74 * g + 112 * b + 128) >> 8) + 128);
+                    out[vBase + c] = (byte) (((112 * r - 94 * g - 18 * b + 128) >> 8) + 128);
+                }
+            }
+        }
+    }
+
+    int frameCount() {
+        return (int) ((endTick + TAIL_TICKS) * (FlappyEngine.TICK_NANOS / 1e6) * fps / 1000);
+    }
+
+    private int frameBytes() {
+        return y4m ? width * height * 3 / 2 : width * height * 3;
+    }
+
+    // Renders every frame on threads workers and hands them to sink in order
+    void export(int threads, FrameSink sink) throws IOException, InterruptedException {
+        int frames = frameCount();
+        int window = threads * 2;
+        BlockingQueue<byte[][]> pool = new ArrayBlockingQueue<>(window);
+        for (int i = 0; i < window; i++) {
+            byte[][] chunk = new byte[CHUNK][];
+            for (int f = 0; f < CHUNK; f++) {
+                chunk[f] = new byte[frameBytes()];
+            }
+            pool.add(chunk);
+        }
+
+        ThreadLocal<Worker> workers = ThreadLocal.withInitial(Worker::new);
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "frame-export");
+            t.setDaemon(true);
+            return t;
+        });
+        ArrayDeque<Future<byte[][]>> inFlight = new ArrayDeque<>();
+        try {
+            int written = 0;
+            for (int first = 0; first < frames || !inFlight.isEmpty(); first += CHUNK) {
+                if (inFlight.size() == window || first >= frames) {
+                    byte[][] done = inFlight.poll().get();
+                    for (int f = 0; f < CHUNK && written < frames; f++) {
+                        sink.write(written++, done[f]);
+                    }
+                    pool.add(done);
+                }
+                if (first < frames) {
+                    int start = first;
+                    byte[][] chunk = pool.take();
+                    inFlight.add(executor.submit(() -> {
+                        Worker worker = workers.get();
+                        for (int f = 0; f < CHUNK && start + f < frames; f++) {
+                            worker.render(start + f, chunk[f]);
+                        }
+                        return chunk;
+                    }));
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new IOException("Rendering failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    interface FrameSink {
+        void write(int index, byte[] frame) throws IOException;
+    }
+
+    // One YUV4MPEG2 stream: a text header, then "FRAME\n" and the Y, U and V planes per frame
+    FrameSink y4mSink(FileChannel channel) throws IOException {
+        channel.write(ByteBuffer.wrap(String.format("YUV4MPEG2 W%d H%d F%d:1 Ip A1:1 C420jpeg\n", width, height, fps)
+                .getBytes(StandardCharsets.US_ASCII)));
+        ByteBuffer frameHeader = ByteBuffer.wrap("FRAME\n".getBytes(StandardCharsets.US_ASCII));
+        return (index, frame) -> {
+            ByteBuffer[] buffers = {frameHeader.rewind(), ByteBuffer.wrap(frame)};
+            while (buffers[1].hasRemaining()) {
+                channel.write(buffers);
+            }
+        };
+    }
+
+    FrameSink ppmSink(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        byte[] header = String.format("P6\n%d %d\n255\n", width, height).getBytes(StandardCharsets.US_ASCII);
+        return (index, frame) -> {
+            try (FileChannel out = FileChannel.open(dir.resolve(String.format("frame-%06d.ppm", index)),
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer[] buffers = {ByteBuffer.wrap(header), ByteBuffer.wrap(frame)};
+                while (buffers[1].hasRemaining()) {
+                    out.write(buffers);
+                }
+            }
+        };
+    }
+
+    // java org.example.FrameExporter <out.y4m | out-dir | null> [--replay=file] [--seed=N] [--seconds=600]
+    //                                [--fps=50] [--scale=1.0] [--threads=cores]
+    // Without --replay the autopilot flies seed's course. "null" renders without writing anything.
+    // Watch the result with e.g. mpv out.y4m, or: ffmpeg -i out.y4m out.mp4
+    public static void main(String[] args) throws IOException, InterruptedException {
+        System.setProperty("java.awt.headless", "true");
+        if (args.length == 0) {
+            System.out.println("usage: FrameExporter <out.y4m | out-dir | null> [--replay=file] [--seed=N] "
+                    + "[--seconds=600] [--fps=50] [--scale=1.0] [--threads=N]");
+            return;
+        }
+        String out = args[0];
+        FlappyReplay replay = null;
+        long seed = 42;
+        long seconds = 600;
+        int fps = 50;
+        double scale = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (arg.startsWith("--replay=")) {
+                replay = FlappyReplay.read(Paths.get(value));
+            } else if (arg.startsWith("--seed=")) {
+                seed = Long.parseLong(value);
+            } else if (arg.startsWith("--seconds=")) {
+                seconds = Long.parseLong(value);
+            } else if (arg.startsWith("--fps=")) {
+                fps = Integer.parseInt(value);
+            } else if (arg.startsWith("--scale=")) {
+                scale = Double.parseDouble(value);
+            } else if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(value);
+            }
+        }
+
+        boolean y4m = out.endsWith(".y4m");
+        long maxTicks = seconds * 1_000_000_000L / FlappyEngine.TICK_NANOS;
+        FrameExporter exporter = new FrameExporter(replay, seed, maxTicks, fps, scale, y4m || out.equals("null"));
+        int frames = exporter.frameCount();
+        System.out.printf("%d frames (%.1f s of play) at %dx%d on %d threads%n",
+                frames, frames / (double) fps, exporter.width, exporter.height, threads);
+
+        long start = System.nanoTime();
+        if (out.equals("null")) {
+            exporter.export(threads, (index, frame) -> {});
+        } else if (y4m) {
+            try (FileChannel channel = FileChannel.open(Paths.get(out), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                exporter.export(threads, exporter.y4mSink(channel));
+            }
+        } else {
+            exporter.export(threads, exporter.ppmSink(Paths.get(out)));
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Done in %.1f s: %.0f frames/s, %.1fx real time%n",
+                elapsed, frames / elapsed, frames / (double) fps / elapsed);
+    }
+}
@@ -0,0 +1,195 @@
+package org.example;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.lang.reflect.InvocationTargetException;
+import java.util.function.IntConsumer;
+
+// One entry point for all the games. The menu is kept cheap so it's up quickly on a cold JVM:
+// default look and feel, logical fonts only, hand-painted buttons, and no reference to
+// any game's classes. A game is looked up by name when it's picked, so its classes, fonts
+// and assets (and the system look and feel TicTacToe asks for) load only then.
+//
+// java org.example.GameLauncher [flappybird|tictactoe|ultimate [game args...]]
+public class GameLauncher {
+    private static final String[] NAMES = {"Flappy Bird", "Tic Tac Toe", "Ultimate Tic Tac Toe"};
+    private static final String[] KEYS = {"flappybird", "tictactoe", "ultimate"};
+    private static final String[] MAIN_CLASSES = {"org.example.Flappybird", "org.example.TicTacToe",
+            "org.example.UltimateTicTacToe"};
+
+    private static final Color BG = new Color(25, 25, 35);
+    private static final Color[] BUTTON_COLORS = {new Color(76, 175, 80), new Color(100, 150, 255),
+            new Color(150, 100, 255)};
+    private static final Font TITLE_FONT = new Font(Font.SANS_SERIF, Font.BOLD, 30);
+    private static final Font BUTTON_FONT = new Font(Font.SANS_SERIF, Font.BOLD, 18);
+    private static final Font HINT_FONT = new Font(Font.SANS_SERIF, Font.PLAIN, 12);
+    private static final int WIDTH = 420, HEIGHT = 376;
+    private static final int BUTTON_W = 300, BUTTON_H = 56, BUTTON_Y = 100, BUTTON_STEP = 76;
+
+    public static void main(String[] args) {
+        if (args.length > 0) {
+            int game = indexOf(args[0]);
+            if (game < 0) {
+                System.out.println("Unknown game " + args[0] + ", expected flappybird, tictactoe or ultimate");
+                return;
+            }
+            String[] rest = new String[args.length - 1];
+            System.arraycopy(args, 1, rest, 0, rest.length);
+            launch(game, rest);
+            return;
+        }
+        SwingUtilities.invokeLater(GameLauncher::showMenu);
+    }
+
+    private static int indexOf(String key) {
+        for (int i = 0; i < KEYS.length; i++) {
+            if (KEYS[i].equalsIgnoreCase(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void showMenu() {
+        JFrame frame = new JFrame("Games");
+        Menu menu = new Menu(game -> {
+            frame.dispose();
+            launch(game, new String[0]);
+        });
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.setContentPane(menu);
+        frame.pack();
+        frame.setResizable(false);
+        frame.setLocationRelativeTo(null);
+        frame.setVisible(true);
+        menu.requestFocusInWindow();
+    }
+
+    // Reflection keeps the game classes out of the launcher's constant pool entirely
+    private static void launch(int game, String[] args) {
+        try {
+            Class.forName(MAIN_CLASSES[game]).getMethod("main", String[].class).invoke(null, (Object) args);
+        } catch (InvocationTargetException e) {
+            fail(game, e.getCause());
+        } catch (ReflectiveOperationException e) {
+            fail(game, e);
+        }
+    }
+
+    private static void fail(int game, Throwable cause) {
+        cause.printStackTrace();
+        if (!GraphicsEnvironment.isHeadless()) {
+            JOptionPane.showMessageDialog(null, "Could not start " + NAMES[game] + ": " + cause);
+        }
+    }
+
+    // Click a button, or press 1/2/3, or move with the arrow keys and hit Enter
+    private static final class Menu extends JComponent {
+        private final IntConsumer picker;
+        private int selected = -1;
+        private boolean painted;
+
+        Menu(IntConsumer picker) {
+            this.picker = picker;
+            setPreferredSize(new Dimension(WIDTH, HEIGHT));
+            setFocusable(true);
+            setOpaque(true);
+            MouseAdapter mouse = new MouseAdapter() {
+                @Override
+                public void mouseMoved(MouseEvent e) {
+                    select(buttonAt(e.getX(), e.getY()));
+                }
+
+                @Override
+                public void mouseExited(MouseEvent e) {
+                    select(-1);
+                }
+
+                @Override
+                public void mouseClicked(MouseEvent e) {
+                    int game = buttonAt(e.getX(), e.getY());
+                    if (game >= 0) {
+                        picker.accept(game);
+                    }
+                }
+            };
+            addMouseListener(mouse);
+            addMouseMotionListener(mouse);
+            addKeyListener(new KeyAdapter() {
+                @Override
+                public void keyPressed(KeyEvent e) {
+                    int code = e.getKeyCode();
+                    if (code >= KeyEvent.VK_1 && code < KeyEvent.VK_1 + NAMES.length) {
+                        picker.accept(code - KeyEvent.VK_1);
+                    } else if (code == KeyEvent.VK_UP || code == KeyEvent.VK_DOWN) {
+                        int step = code == KeyEvent.VK_UP ? NAMES.length - 1 : 1;
+                        select(selected < 0 ? 0 : (selected + step) % NAMES.length);
+                    } else if (code == KeyEvent.VK_ENTER && selected >= 0) {
+                        picker.accept(selected);
+                    }
+                }
+            });
+        }
+
+        private void select(int game) {
+            if (game != selected) {
+                selected = game;
+                repaint();
+            }
+        }
+
+        private int buttonAt(int x, int y) {
+            int left = (WIDTH - BUTTON_W) / 2;
+            if (x < left || x >= left + BUTTON_W) {
+                return -1;
+            }
+            for (int i = 0; i < NAMES.length; i++) {
+                int top = BUTTON_Y + i * BUTTON_STEP;
+                if (y >= top && y < top + BUTTON_H) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            Graphics2D g2 = (Graphics2D) g;
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g2.setColor(BG);
+            g2.fillRect(0, 0, getWidth(), getHeight());
+
+            g2.setColor(Color.WHITE);
+            g2.setFont(TITLE_FONT);
+            drawCentred(g2, "Pick a game", 60);
+
+            int left = (WIDTH - BUTTON_W) / 2;
+            g2.setFont(BUTTON_FONT);
+            for (int i = 0; i < NAMES.length; i++) {
+                int top = BUTTON_Y + i * BUTTON_STEP;
+                g2.setColor(i == selected ? BUTTON_COLORS[i].brighter() : BUTTON_COLORS[i]);
+                g2.fillRoundRect(left, top, BUTTON_W, BUTTON_H, 25, 25);
+                g2.setColor(Color.WHITE);
+                drawCentred(g2, (i + 1) + "   " + NAMES[i], top + BUTTON_H / 2 + 7);
+            }
+
+            g2.setColor(Color.GRAY);
+            g2.setFont(HINT_FONT);
+            drawCentred(g2, "click, or press 1, 2 or 3", HEIGHT - 20);
+            if (!painted) {
+                painted = true;
+                // Runs once this paint has been copied to the screen
+                SwingUtilities.invokeLater(() -> Startup.frameShown("launcher"));
+            }
+        }
+
+        private void drawCentred(Graphics2D g2, String text, int baseline) {
+            g2.drawString(text, (WIDTH - g2.getFontMetrics().stringWidth(text)) / 2, baseline);
+        }
+    }
+}
@@ -0,0 +1,469 @@
+package org.example;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+import java.awt.image.BufferStrategy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+class GamePanel extends Canvas implements Runnable {
+    private static final int MAX_CATCH_UP = 5; // Ticks per frame before we drop time instead
+    private static final int CROWD_BIRDS_DRAWN = 200;
+    private static final int FLAP = 0, RESTART = 1, CHEAT = 2, OVERLAY = 3; // Input events
+    private static final long TOAST_NANOS = 2_000_000_000L;
+
+    private final FlappyEngine engine;
+    // Crowd mode: the autopilot flies a whole population and the player only watches
+    private final FlappyCrowd crowd;
+    private final int[] crowdOffsets;
+    private final boolean[] crowdFlaps;
+    // When set, an evolved controller flies the bird instead of the space bar
+    private volatile FlappyBrain brain;
+    private final Random seeds = new Random();
+    // Every single-bird run is recorded; finished runs are written to recordDir (null = off)
+    private final FlappyReplay.Recorder recorder = new FlappyReplay.Recorder();
+    private volatile Path recordDir;
+    // When set, the bird flies this recording instead of taking input
+    private volatile FlappyReplay replay;
+    private FlappyReplay.Cursor replayCursor;
+    private volatile StatsStore stats; // Lifetime high score and run history; null = not kept
+    // Single-bird games go out to spectators when set; a spectator panel plays one instead
+    private volatile FlappyBroadcast broadcast;
+    private volatile FlappySpectator spectator;
+    private boolean spectatorEnded;
+    private final long frameNanos;
+    private boolean gameStarted = false;
+
+    // Keys go through the input map to actions that only queue a timestamped event; the game
+    // loop applies each event in the tick whose time slice it fell in
+    private final InputMap inputMap = new InputMap();
+    private final ActionMap actionMap = new ActionMap();
+    private final InputQueue input = new InputQueue(256);
+    private long keyPressedAt; // EDT only: when the key being dispatched went down, 0 outside dispatch
+
+    // Non-modal message drawn over the game, e.g. for the cheat code
+    private String toast;
+    private long toastUntil;
+
+    // Tick/frame timing; F3 shows it on screen
+    private final PerfMonitor perf = new PerfMonitor("flappybird");
+    private boolean showOverlay = false;
+
+    private volatile boolean running = false;
+    private Thread loop;
+    private long sleepOvershoot = 1_000_000L; // How late Thread.sleep tends to wake up on this box
+
+    private FlappyRenderer renderer;
+    private Rectangle windowedBounds; // Where the frame was before going full screen
+
+    public GamePanel(int targetFps, int crowdSize, DifficultyCurve course) {
+        frameNanos = targetFps > 0 ? 1_000_000_000L / targetFps : 0;
+        setBackground(FlappyRenderer.SKY_COLOR);
+        setPreferredSize(new Dimension(FlappyEngine.WIDTH, FlappyEngine.HEIGHT));
+        setIgnoreRepaint(true); // We draw from the loop, not from AWT paint requests
+        setFocusable(true);
+        bindKeys();
+        addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                dispatch(e);
+            }
+        });
+        engine = new FlappyEngine(seeds.nextLong(), course);
+        engine.getPipes().setPrefetch(true);
+        crowd = crowdSize > 0 ? new FlappyCrowd(crowdSize, 0, course) : null;
+        if (crowd != null) {
+            crowd.getPipes().setPrefetch(true);
+        }
+        crowdOffsets = crowdSize > 0 ? FlappyCrowd.makeOffsets(crowdSize, seeds.nextLong()) : null;
+        crowdFlaps = crowdSize > 0 ? new boolean[crowdSize] : null;
+
+        // Initialize game
+        resetGame();
+    }
+
+    // Must be called once the panel is showing so a BufferStrategy can be created
+    void start() {
+        if (running) {
+            return;
+        }
+        renderer = new FlappyRenderer(getGraphicsConfiguration());
+        createBufferStrategy(2);
+        requestFocusInWindow();
+        running = true;
+        loop = new Thread(this, "flappy-loop");
+        loop.start();
+    }
+
+    // A Canvas has no key bindings of its own, so keyPressed looks strokes up here
+    private void bindKeys() {
+        bind(KeyEvent.VK_SPACE, "flap", FLAP);
+        bind(KeyEvent.VK_UP, "flap", FLAP);
+        bind(KeyEvent.VK_R, "restart", RESTART);
+        bind(KeyEvent.VK_C, "cheat", CHEAT); // Cheat code: super easy mode (even bigger gap temporarily)
+        bind(KeyEvent.VK_F3, "overlay", OVERLAY);
+        // Not a game event: the window changes right away, on the EDT
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_F11, 0), "fullScreen");
+        actionMap.put("fullScreen", new AbstractAction("fullScreen") {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                toggleFullScreen();
+            }
+        });
+    }
+
+    // Borderless window over the whole screen, and back. Decorations can only change while
+    // the frame has no peer, and disposing it takes the canvas's buffers with it, so the loop
+    // is stopped first and started again on the new ones.
+    private void toggleFullScreen() {
+        Window window = SwingUtilities.getWindowAncestor(this);
+        if (!(window instanceof Frame)) {
+            return;
+        }
+        Frame frame = (Frame) window;
+        GraphicsDevice device = frame.getGraphicsConfiguration().getDevice();
+        boolean leaving = device.getFullScreenWindow() == frame;
+        Thread thread = loop;
+        stop();
+        if (thread != null) {
+            try {
+                thread.join(); // Let it finish the frame it's on before its buffers go
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        if (leaving) {
+            device.setFullScreenWindow(null);
+        } else {
+            windowedBounds = frame.getBounds();
+        }
+        frame.dispose();
+        frame.setUndecorated(!leaving);
+        if (leaving) {
+            frame.setBounds(windowedBounds);
+            frame.setVisible(true);
+        } else {
+            device.setFullScreenWindow(frame); // Falls back to a screen-sized window where unsupported
+        }
+        start();
+    }
+
+    private void bind(int key, String name, int event) {
+        inputMap.put(KeyStroke.getKeyStroke(key, 0), name);
+        actionMap.put(name, new AbstractAction(name) {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                input.offer(event, keyPressedAt != 0 ? keyPressedAt : System.nanoTime());
+            }
+        });
+    }
+
+    private void dispatch(KeyEvent e) {
+        long now = System.nanoTime();
+        Object name = inputMap.get(KeyStroke.getKeyStrokeForEvent(e));
+        Action action = name != null ? actionMap.get(name) : null;
+        if (action != null && action.isEnabled()) {
+            keyPressedAt = now;
+            action.actionPerformed(new ActionEvent(this, ActionEvent.ACTION_PERFORMED, name.toString(), e.getWhen(),
+                    e.getModifiersEx()));
+            keyPressedAt = 0;
+            e.consume();
+        }
+    }
+
+    InputMap getInputMap() { return inputMap; }
+    ActionMap getActionMap() { return actionMap; }
+
+    void setBrain(FlappyBrain brain) {
+        this.brain = brain;
+    }
+
+    // Call before start(); the replayed run restarts from its own seed
+    void setReplay(FlappyReplay replay) {
+        this.replay = replay;
+        resetGame();
+    }
+
+    void setRecordDir(Path recordDir) {
+        this.recordDir = recordDir;
+    }
+
+    // Call before start(); custom courses can't be broadcast, only the presets
+    void setBroadcast(FlappyBroadcast broadcast) {
+        this.broadcast = broadcast;
+        broadcast.keyframe(engine, gameStarted);
+    }
+
+    // Call before start(); the panel then only shows what the broadcast plays
+    void setSpectator(FlappySpectator spectator) {
+        this.spectator = spectator;
+    }
+
+    void setStats(StatsStore stats) {
+        this.stats = stats;
+        engine.restoreHighScore(stats.flappyHighScore());
+    }
+
+    void stop() {
+        running = false;
+        if (loop != null) {
+            loop.interrupt();
+            loop = null;
+        }
+    }
+
+    @Override
+    public void removeNotify() {
+        stop();
+        super.removeNotify();
+    }
+
+    @Override
+    public void run() {
+        BufferStrategy strategy = getBufferStrategy();
+        perf.setInputBudget(frameNanos > 0 ? frameNanos : FlappyEngine.TICK_NANOS);
+        long previous = System.nanoTime();
+        long lag = 0;
+        long nextFrame = previous;
+        boolean firstFrame = true;
+
+        while (running) {
+            long now = System.nanoTime();
+            lag += now - previous;
+            previous = now;
+
+            // Fixed timestep: physics always advances in FlappyEngine.TICK_NANOS slices
+            int steps = 0;
+            while (lag >= FlappyEngine.TICK_NANOS && steps < MAX_CATCH_UP) {
+                long start = perf.tickStart();
+                tick(now - lag + FlappyEngine.TICK_NANOS);
+                perf.tickEnd(start);
+                lag -= FlappyEngine.TICK_NANOS;
+                steps++;
+            }
+            FlappyBroadcast out = broadcast;
+            if (out != null) {
+                out.publish(); // Once per frame, however many ticks it ran
+            }
+            if (lag >= FlappyEngine.TICK_NANOS) {
+                // Too far behind (debugger, machine under load) - slow down rather than spiral
+                lag = FlappyEngine.TICK_NANOS - 1;
+            }
+
+            perf.frameStart();
+            present(strategy, (double) lag / FlappyEngine.TICK_NANOS);
+            perf.frameEnd();
+            if (firstFrame) {
+                firstFrame = false;
+                Startup.frameShown("flappybird");
+            }
+
+            if (frameNanos > 0) {
+                nextFrame += frameNanos;
+                if (nextFrame < now) {
+                    nextFrame = now; // Missed the slot, don't try to burst to catch up
+                    perf.missedFrame();
+                }
+                sleepUntil(nextFrame);
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    // sliceEnd is the nanoTime this tick's slice of simulated time ends at; input from before
+    // then belongs to this tick, later input waits for the next one
+    private void tick(long sliceEnd) {
+        boolean space = false;
+        long flapAt = 0; // The first press this tick; its latency only counts if it changes something
+        boolean counted = false;
+        for (long at; (at = input.peekTime()) < sliceEnd; input.skip()) {
+            switch (input.peekEvent()) {
+                case FLAP:
+                    if (!space) {
+                        space = true;
+                        flapAt = at;
+                    }
+                    break;
+                case RESTART:
+                    if (isOver() && spectator == null) {
+                        resetGame();
+                        perf.inputApplied(at);
+                    }
+                    break;
+                case CHEAT:
+                    if (gameStarted && !isOver()) {
+                        // Temporarily make gap visible as even bigger (visual cheat)
+                        showToast("Cheat activated! Gap increased!");
+                    }
+                    break;
+                case OVERLAY:
+                    showOverlay = !showOverlay;
+                    break;
+            }
+        }
+
+        if (spectator != null) {
+            spectator.play(engine);
+            gameStarted = spectator.started();
+            if (spectator.ended() && !spectatorEnded) {
+                spectatorEnded = true;
+                showToast("Broadcast ended");
+            }
+            return;
+        }
+        if (space) {
+            if (!gameStarted) {
+                gameStarted = true;
+                perf.inputApplied(flapAt);
+                counted = true; // The same press is also the first flap
+                if (broadcast != null) {
+                    broadcast.keyframe(engine, true);
+                }
+            } else if (isOver()) {
+                resetGame();
+                perf.inputApplied(flapAt);
+                return;
+            }
+        }
+        if (!gameStarted) {
+            return;
+        }
+        if (crowd != null) {
+            crowd.autopilot(crowdOffsets, crowdFlaps);
+            crowd.step(crowdFlaps);
+            return;
+        }
+        boolean flap = replayCursor != null ? replayCursor.flap(engine.getTick()) : brain != null ? brain.flap(engine) : space;
+        long before = engine.getTick();
+        if (replayCursor != null) {
+            engine.step(flap);
+        } else {
+            if (space && brain == null && !counted) {
+                perf.inputApplied(flapAt); // The player's own flap
+            }
+            stepRecorded(flap);
+        }
+        if (broadcast != null && engine.getTick() != before) {
+            broadcast.tick(engine, flap);
+        }
+    }
+
+    private void stepRecorded(boolean flap) {
+        if (engine.isGameOver()) {
+            return;
+        }
+        if (flap) {
+            recorder.flap(engine.getTick());
+        }
+        engine.step(flap);
+        StatsStore store = stats;
+        if (engine.isGameOver() && store != null) {
+            store.recordFlappy(engine.getScore(), engine.getTick());
+        }
+        Path dir = recordDir;
+        if (engine.isGameOver() && dir != null) {
+            // Off the game loop: the file is tiny but the disk may not be
+            FlappyReplay run = recorder.finish(engine);
+            CompletableFuture.runAsync(() -> {
+                try {
+                    Files.createDirectories(dir);
+                    run.write(dir.resolve(run.fileName()));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).exceptionally(e -> {
+                System.err.println("Could not save replay: " + e.getCause());
+                return null;
+            });
+        }
+    }
+
+    private void showToast(String message) {
+        toast = message;
+        toastUntil = System.nanoTime() + TOAST_NANOS;
+    }
+
+    private boolean isOver() {
+        return crowd != null ? crowd.aliveCount() == 0 : engine.isGameOver();
+    }
+
+    private void present(BufferStrategy strategy, double alpha) {
+        do {
+            do {
+                Graphics2D g2d = (Graphics2D) strategy.getDrawGraphics();
+                try {
+                    render(g2d, alpha);
+                } finally {
+                    g2d.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync();
+    }
+
+    // Coarse sleep while there is plenty of time left, then spin for the last stretch
+    private void sleepUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > sleepOvershoot + 1_000_000L) {
+            long before = System.nanoTime();
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                return;
+            }
+            long late = System.nanoTime() - before - 1_000_000L;
+            sleepOvershoot = (sleepOvershoot * 7 + Math.max(0, late)) / 8;
+        }
+        while (remaining > 0) {
+            Thread.onSpinWait();
+            remaining = deadline - System.nanoTime();
+        }
+    }
+
+    private void resetGame() {
+        long seed = replay != null ? replay.seed : seeds.nextLong();
+        engine.reset(seed);
+        recorder.start(seed);
+        replayCursor = replay != null ? replay.cursor() : null;
+        if (crowd != null) {
+            crowd.reset(seed);
+        }
+        gameStarted = false;
+        if (broadcast != null) {
+            broadcast.keyframe(engine, false);
+        }
+    }
+
+    @Override
+    public void paint(Graphics g) {}
+
+    @Override
+    public void update(Graphics g) {}
+
+    void render(Graphics2D g2d, double alpha) {
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        // The back buffer follows the canvas size; a new scale re-rasterizes the sprites once
+        renderer.setViewport(getWidth(), getHeight());
+        if (crowd != null) {
+            renderer.renderCrowd(g2d, crowd, alpha, System.currentTimeMillis(), gameStarted, CROWD_BIRDS_DRAWN);
+        } else {
+            renderer.render(g2d, engine, alpha, System.currentTimeMillis(), gameStarted);
+        }
+        long toastLeft = toastUntil - System.nanoTime();
+        if (toast != null && toastLeft > 0) {
+            // Fades out over its last half second
+            renderer.drawToast(g2d, toast, Math.min(1f, toastLeft / 500_000_000f));
+        }
+        if (showOverlay) {
+            renderer.drawOverlay(g2d, perf.overlayLines());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package org.example;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+// Timestamped input events from one producer thread (the EDT) to one consumer (the game
+// loop). A ring of parallel arrays with release/acquire on the two indices: no locks and no
+// allocation, so a key press never waits on a tick and a tick never waits on the EDT. Each
+// side caches the other's index and only re-reads it when the ring looks full or empty.
+class InputQueue {
+    private static final VarHandle HEAD, TAIL;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(InputQueue.class, "head", long.class);
+            TAIL = lookup.findVarHandle(InputQueue.class, "tail", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final long[] times;
+    private final int[] events;
+    private final int mask;
+    private long head; // Next slot to take; only the consumer writes it
+    private long tail; // Next slot to fill; only the producer writes it
+    private long headSeen; // Producer's copy of head
+    private long tailSeen; // Consumer's copy of tail
+
+    // capacity is rounded up to a power of two
+    InputQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        times = new long[size];
+        events = new int[size];
+        mask = size - 1;
+    }
+
+    // Producer: false if the consumer is that far behind, in which case the event is dropped
+    boolean offer(int event, long nanos) {
+        long t = tail;
+        if (t - headSeen == times.length) {
+            headSeen = (long) HEAD.getAcquire(this);
+            if (t - headSeen == times.length) {
+                return false;
+            }
+        }
+        int i = (int) t & mask;
+        times[i] = nanos;
+        events[i] = event;
+        TAIL.setRelease(this, t + 1);
+        return true;
+    }
+
+    // Consumer: time of the oldest event, or Long.MAX_VALUE when there is none
+    long peekTime() {
+        long h = head;
+        if (h == tailSeen) {
+            tailSeen = (long) TAIL.getAcquire(this);
+            if (h == tailSeen) {
+                return Long.MAX_VALUE;
+            }
+        }
+        return times[(int) h & mask];
+    }
+
+    // Consumer: the oldest event; only after peekTime() found one
+    int peekEvent() {
+        return events[(int) head & mask];
+    }
+
+    // Consumer: drops the oldest event
+    void skip() {
+        HEAD.setRelease(this, head + 1);
+    }
+}
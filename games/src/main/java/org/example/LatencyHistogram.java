@@ -0,0 +1,105 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+// Log-linear histogram in the style of HdrHistogram: every power of two is split into
+// 128 linear sub-buckets, so any recorded value comes back within 1% at a fixed 35 KB
+// footprint. Recording is an index computation and an array increment - no allocation -
+// which keeps it cheap enough to call every tick. Values are usually nanoseconds but can
+// be any non-negative long (bytes allocated, for instance).
+// One thread records; others may read, and only see a slightly stale picture.
+class LatencyHistogram {
+    private static final int SUB_BITS = 7;
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int MAX_EXP = 40 - SUB_BITS; // Values are clamped to 2^40
+    private static final long MAX_VALUE = (1L << 40) - 1;
+
+    private final long[] counts = new long[(MAX_EXP + 2) * SUB];
+    private long count;
+    private long max;
+    private long sum;
+
+    void record(long value) {
+        long v = Math.max(0, Math.min(value, MAX_VALUE));
+        counts[indexOf(v)]++;
+        count++;
+        sum += v;
+        if (v > max) {
+            max = v;
+        }
+    }
+
+    private static int indexOf(long v) {
+        if (v < 2 * SUB) {
+            return (int) v;
+        }
+        int exp = 63 - Long.numberOfLeadingZeros(v) - SUB_BITS;
+        return (exp + 1) * SUB + (int) (v >>> exp) - SUB;
+    }
+
+    // Largest value that lands in bucket index
+    private static long highestIn(int index) {
+        if (index < 2 * SUB) {
+            return index;
+        }
+        int exp = index / SUB - 1;
+        long sub = index % SUB + SUB;
+        return (sub << exp) + (1L << exp) - 1;
+    }
+
+    // Value at or below which the given fraction of recordings fall, e.g. 0.99 for p99
+    long percentile(double fraction) {
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(fraction * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(highestIn(i), max);
+            }
+        }
+        return max;
+    }
+
+    // Fraction of recordings at or below value, to bucket precision
+    double fractionAtOrBelow(long value) {
+        if (count == 0) {
+            return 0;
+        }
+        int last = indexOf(Math.max(0, Math.min(value, MAX_VALUE)));
+        long seen = 0;
+        for (int i = 0; i <= last; i++) {
+            seen += counts[i];
+        }
+        return (double) seen / count;
+    }
+
+    long count() { return count; }
+    long max() { return max; }
+    double mean() { return count == 0 ? 0 : (double) sum / count; }
+
+    void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        max = 0;
+        sum = 0;
+    }
+
+    void add(LatencyHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    // {"count":..,"mean":..,"p50":..,"p90":..,"p99":..,"p999":..,"max":..}
+    String toJson() {
+        return String.format(Locale.ROOT, "{\"count\": %d, \"mean\": %.1f, \"p50\": %d, \"p90\": %d, \"p99\": %d, \"p999\": %d, \"max\": %d}",
+                count, mean(), percentile(0.5), percentile(0.9), percentile(0.99), percentile(0.999), max);
+    }
+}
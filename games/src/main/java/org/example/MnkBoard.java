@@ -0,0 +1,274 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+
+// Board for m,n,k games: rows x cols, first to k in a row wins. 3x3/3 is plain TicTacToe.
+// Every k-long window on the board keeps a running stone count per player, so a move
+// only touches the windows through its cell: win detection and the evaluation are
+// updated incrementally and make/unmake are cheap enough for deep search.
+//
+// The move history doubles as an undo/redo line for the UI: undo() keeps the moves it takes
+// back past the end of the history, and redo() or playing the same move again replays them.
+class MnkBoard {
+    static final int NONE = 0, X = 1, O = 2;
+    static final int MAX_CELLS = 0xFFFF; // MnkSearch keeps a move in 16 bits of a table entry
+
+    private static final int NEAR = 2; // Candidate moves are empty cells this close to a stone
+
+    final int rows, cols, k;
+    private final Geometry geo;
+
+    private final byte[] cells;
+    private final int[] countX, countO; // Stones per window
+    private final int[] near; // Stones within NEAR of each cell
+    private final int[] history;
+    private int moves;
+    private int redoable; // Undone moves kept in history after the last one played
+    private int winner;
+    private int score; // Sum of window scores, from X's point of view
+    private long hash;
+
+    // Immutable layout shared by every copy of a board with the same rows, cols and k
+    private static final class Geometry {
+        final int[][] windowCells; // Cells of each window
+        final int[][] windowsOf; // Windows through each cell
+        final int[][] neighbours; // Cells within NEAR of each cell, itself excluded
+        final long[][] zobrist; // [player][cell]
+        final long sideKey;
+        final int[] weight; // Score of a window holding n stones of one player only
+
+        Geometry(int rows, int cols, int k) {
+            int n = rows * cols;
+            ArrayList<int[]> windows = new ArrayList<>();
+            int[][] dirs = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < cols; c++) {
+                    for (int[] d : dirs) {
+                        int endR = r + d[0] * (k - 1), endC = c + d[1] * (k - 1);
+                        if (endR < rows && endC >= 0 && endC < cols) {
+                            int[] w = new int[k];
+                            for (int i = 0; i < k; i++) {
+                                w[i] = (r + d[0] * i) * cols + c + d[1] * i;
+                            }
+                            windows.add(w);
+                        }
+                    }
+                }
+            }
+            windowCells = windows.toArray(new int[0][]);
+
+            int[] perCell = new int[n];
+            for (int[] w : windowCells) {
+                for (int cell : w) {
+                    perCell[cell]++;
+                }
+            }
+            windowsOf = new int[n][];
+            for (int cell = 0; cell < n; cell++) {
+                windowsOf[cell] = new int[perCell[cell]];
+                perCell[cell] = 0;
+            }
+            for (int w = 0; w < windowCells.length; w++) {
+                for (int cell : windowCells[w]) {
+                    windowsOf[cell][perCell[cell]++] = w;
+                }
+            }
+
+            neighbours = new int[n][];
+            for (int cell = 0; cell < n; cell++) {
+                int r = cell / cols, c = cell % cols;
+                ArrayList<Integer> list = new ArrayList<>();
+                for (int dr = -NEAR; dr <= NEAR; dr++) {
+                    for (int dc = -NEAR; dc <= NEAR; dc++) {
+                        int rr = r + dr, cc = c + dc;
+                        if ((dr != 0 || dc != 0) && rr >= 0 && rr < rows && cc >= 0 && cc < cols) {
+                            list.add(rr * cols + cc);
+                        }
+                    }
+                }
+                neighbours[cell] = list.stream().mapToInt(Integer::intValue).toArray();
+            }
+
+            SplittableRandom random = new SplittableRandom(0x5EED_0F_3A7EL + 31L * n + k);
+            zobrist = new long[3][n];
+            for (int p = X; p <= O; p++) {
+                for (int cell = 0; cell < n; cell++) {
+                    zobrist[p][cell] = random.nextLong();
+                }
+            }
+            sideKey = random.nextLong();
+
+            weight = new int[k + 1];
+            for (int i = 1; i < k; i++) {
+                weight[i] = (int) Math.min(100_000, Math.pow(8, i));
+            }
+        }
+    }
+
+    MnkBoard(int rows, int cols, int k) {
+        this(rows, cols, k, geometry(rows, cols, k));
+    }
+
+    private static Geometry geometry(int rows, int cols, int k) {
+        if (rows < 1 || cols < 1 || (long) rows * cols > MAX_CELLS || k < 1 || k > Math.max(rows, cols)) {
+            throw new IllegalArgumentException("No " + rows + "x" + cols + " board with " + k + " in a row");
+        }
+        return new Geometry(rows, cols, k);
+    }
+
+    private MnkBoard(int rows, int cols, int k, Geometry geo) {
+        this.rows = rows;
+        this.cols = cols;
+        this.k = k;
+        this.geo = geo;
+        cells = new byte[rows * cols];
+        countX = new int[geo.windowCells.length];
+        countO = new int[geo.windowCells.length];
+        near = new int[rows * cols];
+        history = new int[rows * cols];
+    }
+
+    // Independent board in the same position, e.g. one per search thread
+    MnkBoard copy() {
+        MnkBoard b = new MnkBoard(rows, cols, k, geo);
+        for (int i = 0; i < moves; i++) {
+            b.make(history[i]);
+        }
+        return b;
+    }
+
+    void reset() {
+        while (moves > 0) {
+            unmake();
+        }
+    }
+
+    // Places the side to move on an empty cell. The caller checks isLegal first.
+    void make(int cell) {
+        int player = isXTurn() ? X : O;
+        cells[cell] = (byte) player;
+        // Playing the next undone move keeps the rest of the redo line; anything else drops it
+        redoable = redoable > 0 && history[moves] == cell ? redoable - 1 : 0;
+        history[moves++] = cell;
+        hash ^= geo.zobrist[player][cell] ^ geo.sideKey;
+        for (int nb : geo.neighbours[cell]) {
+            near[nb]++;
+        }
+
+        int[] own = player == X ? countX : countO;
+        for (int w : geo.windowsOf[cell]) {
+            int before = windowScore(countX[w], countO[w]);
+            if (++own[w] == k) {
+                winner = player;
+            }
+            score += windowScore(countX[w], countO[w]) - before;
+        }
+    }
+
+    // Takes back the last move for good; search uses this, the UI uses undo()
+    void unmake() {
+        int cell = history[--moves];
+        int player = cells[cell];
+        cells[cell] = NONE;
+        winner = NONE;
+        redoable = 0;
+        hash ^= geo.zobrist[player][cell] ^ geo.sideKey;
+        for (int nb : geo.neighbours[cell]) {
+            near[nb]--;
+        }
+
+        int[] own = player == X ? countX : countO;
+        for (int w : geo.windowsOf[cell]) {
+            int before = windowScore(countX[w], countO[w]);
+            own[w]--;
+            score += windowScore(countX[w], countO[w]) - before;
+        }
+    }
+
+    // Takes back the last move but keeps it for redo()
+    void undo() {
+        int kept = redoable;
+        unmake();
+        redoable = kept + 1;
+    }
+
+    // Replays the last undone move
+    void redo() {
+        make(history[moves]);
+    }
+
+    private int windowScore(int x, int o) {
+        if (o == 0) {
+            return geo.weight[Math.min(x, k - 1)];
+        }
+        return x == 0 ? -geo.weight[Math.min(o, k - 1)] : 0;
+    }
+
+    boolean isLegal(int cell) {
+        return cell >= 0 && cell < cells.length && cells[cell] == NONE && !isOver();
+    }
+
+    // Empty cells worth searching: near existing stones, or the centre on an empty board.
+    // Returns how many were written to out.
+    int candidates(int[] out) {
+        boolean all = cells.length <= 16; // Small boards: every empty cell matters
+        if (moves == 0 && !all) {
+            out[0] = (rows / 2) * cols + cols / 2;
+            return 1;
+        }
+        int n = 0;
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] == NONE && (all || near[cell] > 0)) {
+                out[n++] = cell;
+            }
+        }
+        return n;
+    }
+
+    // Cells of the completed line, or an empty array while nobody has won
+    int[] winningCells() {
+        if (winner == NONE) {
+            return new int[0];
+        }
+        int last = history[moves - 1];
+        int[] own = winner == X ? countX : countO;
+        for (int w : geo.windowsOf[last]) {
+            if (own[w] == k) {
+                return geo.windowCells[w].clone();
+            }
+        }
+        return new int[0];
+    }
+
+    // Static evaluation for the side to move
+    int evaluate() {
+        return isXTurn() ? score : -score;
+    }
+
+    // Cells of one player as a bit mask; only meaningful for boards of up to 31 cells
+    int bits(int player) {
+        int mask = 0;
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] == player) {
+                mask |= 1 << cell;
+            }
+        }
+        return mask;
+    }
+
+    int get(int cell) { return cells[cell]; }
+    int size() { return cells.length; }
+    int moves() { return moves; }
+    int lastMove() { return moves == 0 ? -1 : history[moves - 1]; }
+    int moveAt(int i) { return history[i]; } // Redoable moves included, up to lineLength()
+    int lineLength() { return moves + redoable; }
+    boolean canUndo() { return moves > 0; }
+    boolean canRedo() { return redoable > 0; }
+    boolean isXTurn() { return (moves & 1) == 0; }
+    int winner() { return winner; }
+    boolean isFull() { return moves == cells.length; }
+    boolean isDraw() { return winner == NONE && isFull(); }
+    boolean isOver() { return winner != NONE || isFull(); }
+    long hash() { return hash; }
+}
@@ -0,0 +1,280 @@
+package org.example;
+
+import java.util.SplittableRandom;
+
+// Alpha-beta search for MnkBoard: iterative deepening, a Zobrist-keyed transposition table,
+// TT-move/killer/history move ordering, and Lazy SMP - every thread searches the same root
+// on its own board copy and they cooperate only through the shared table.
+class MnkSearch {
+    static final int WIN = 1 << 28; // A win at ply p scores WIN - p
+    private static final int INF = 1 << 30;
+    private static final int MAX_PLY = 1024;
+    private static final int EXACT = 0, LOWER = 1, UPPER = 2;
+
+    // Two longs per entry: key ^ data, then data. A torn write from a racing thread fails
+    // the key check and simply reads as a miss, so the table needs no locks. data packs
+    // score << 24 | flag << 22 | depth << 16 | best cell + 1, room for boards of 65535 cells.
+    private final long[] table;
+    private final int entryMask;
+
+    static final class Result {
+        final int move, score, depth;
+        final long nodes, nanos;
+
+        Result(int move, int score, int depth, long nodes, long nanos) {
+            this.move = move;
+            this.score = score;
+            this.depth = depth;
+            this.nodes = nodes;
+            this.nanos = nanos;
+        }
+
+        double nodesPerSecond() {
+            return nodes * 1e9 / Math.max(1, nanos);
+        }
+
+        // Score for the side to move, or "win in n"/"loss in n" plies once the search proves one
+        String eval() {
+            return Math.abs(score) > WIN - MAX_PLY
+                    ? (score > 0 ? "win in " : "loss in ") + (WIN - Math.abs(score))
+                    : String.valueOf(score);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("move %d, depth %d, eval %s, %d nodes, %.0f knodes/s",
+                    move, depth, eval(), nodes, nodesPerSecond() / 1000);
+        }
+    }
+
+    MnkSearch(int tableBits) {
+        table = new long[2 << tableBits];
+        entryMask = (1 << tableBits) - 1;
+    }
+
+    // Best move for the side to move within budgetMillis (or maxDepth plies, whichever is
+    // reached first), searched by the given number of threads
+    Result search(MnkBoard root, long budgetMillis, int maxDepth, int threads) {
+        return search(root, budgetMillis, maxDepth, threads, new Cancellation());
+    }
+
+    // The same, ending early once cancel is cancelled. Calls may overlap: they only share the table.
+    Result search(MnkBoard root, long budgetMillis, int maxDepth, int threads, Cancellation cancel) {
+        if (root.isOver()) {
+            throw new IllegalStateException("Game is already over");
+        }
+        long start = System.nanoTime();
+        long deadline = start + budgetMillis * 1_000_000L;
+
+        Worker[] workers = new Worker[threads];
+        Thread[] pool = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(i, root.copy(), maxDepth, cancel, deadline);
+            if (i > 0) {
+                pool[i] = new Thread(workers[i], "mnk-search-" + i);
+                pool[i].setDaemon(true);
+                pool[i].start();
+            }
+        }
+        workers[0].run();
+        cancel.cancel(); // The main thread is done; helpers stop with it
+        long nodes = workers[0].nodes;
+        for (int i = 1; i < threads; i++) {
+            try {
+                pool[i].join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            nodes += workers[i].nodes;
+        }
+
+        // Deepest finished iteration wins; the main thread breaks ties
+        Worker best = workers[0];
+        for (Worker w : workers) {
+            if (w.doneDepth > best.doneDepth) {
+                best = w;
+            }
+        }
+        return new Result(best.bestMove, best.bestScore, best.doneDepth, nodes, System.nanoTime() - start);
+    }
+
+    private final class Worker implements Runnable {
+        private final int id;
+        private final MnkBoard board;
+        private final int maxDepth;
+        private final Cancellation stop;
+        private final long deadline;
+        private final int[][] moves;
+        private final int[][] order;
+        private final int[][] killers = new int[MAX_PLY][2];
+        private final int[] history;
+        private final SplittableRandom random;
+        long nodes;
+        int bestMove = -1, bestScore, doneDepth;
+        private int rootMove;
+
+        Worker(int id, MnkBoard board, int maxDepth, Cancellation stop, long deadline) {
+            this.id = id;
+            this.board = board;
+            this.stop = stop;
+            this.deadline = deadline;
+            this.maxDepth = Math.min(maxDepth, board.size() - board.moves());
+            int depthSlots = this.maxDepth + 1;
+            moves = new int[depthSlots][board.size()];
+            order = new int[depthSlots][board.size()];
+            history = new int[board.size()];
+            random = new SplittableRandom(id * 0x9E3779B97F4A7C15L);
+        }
+
+        @Override
+        public void run() {
+            // Helpers start one ply deeper on odd ids so threads spread over depths
+            for (int depth = 1 + (id & 1); depth <= maxDepth && !stop.isCancelled(); depth++) {
+                int score = alphaBeta(depth, 0, -INF, INF);
+                if (stop.isCancelled() && doneDepth > 0) {
+                    break;
+                }
+                bestMove = rootMove;
+                bestScore = score;
+                doneDepth = depth;
+                if (Math.abs(score) > WIN - MAX_PLY) {
+                    break; // Forced result found, deeper search can't change it
+                }
+            }
+        }
+
+        private int alphaBeta(int depth, int ply, int alpha, int beta) {
+            if ((++nodes & 1023) == 0 && System.nanoTime() > deadline) {
+                stop.cancel();
+            }
+            if (stop.isCancelled() && doneDepth > 0) {
+                return 0;
+            }
+            if (board.winner() != MnkBoard.NONE) {
+                return -(WIN - ply); // The opponent's last move won
+            }
+            if (board.isFull()) {
+                return 0;
+            }
+            if (depth == 0) {
+                return board.evaluate();
+            }
+
+            // Transposition table probe
+            long key = board.hash();
+            int slot = ((int) key & entryMask) << 1;
+            long data = table[slot + 1];
+            int ttMove = -1;
+            if ((table[slot] ^ data) == key) {
+                ttMove = (int) (data & 0xFFFF) - 1;
+                int ttDepth = (int) (data >>> 16) & 0x3F;
+                int ttFlag = (int) (data >>> 22) & 0x3;
+                int ttScore = fromTable((int) (data >>> 24), ply);
+                if (ply > 0 && ttDepth >= depth
+                        && (ttFlag == EXACT
+                        || (ttFlag == LOWER && ttScore >= beta)
+                        || (ttFlag == UPPER && ttScore <= alpha))) {
+                    return ttScore;
+                }
+            }
+
+            int[] list = moves[ply];
+            int[] rank = order[ply];
+            int n = board.candidates(list);
+            for (int i = 0; i < n; i++) {
+                int m = list[i];
+                rank[i] = m == ttMove ? INF
+                        : m == killers[ply][0] ? INF - 1
+                        : m == killers[ply][1] ? INF - 2
+                        : history[m] + (id > 0 ? random.nextInt(8) : 0);
+            }
+
+            int alphaIn = alpha;
+            int best = -INF, bestCell = list[0];
+            for (int i = 0; i < n; i++) {
+                // Selection sort, one step per move: cutoffs usually come early
+                int pick = i;
+                for (int j = i + 1; j < n; j++) {
+                    if (rank[j] > rank[pick]) {
+                        pick = j;
+                    }
+                }
+                int m = list[pick];
+                list[pick] = list[i];
+                list[i] = m;
+                rank[pick] = rank[i];
+
+                board.make(m);
+                int v = -alphaBeta(depth - 1, ply + 1, -beta, -alpha);
+                board.unmake();
+                if (stop.isCancelled() && doneDepth > 0) {
+                    return 0;
+                }
+
+                if (v > best) {
+                    best = v;
+                    bestCell = m;
+                    if (ply == 0) {
+                        rootMove = m;
+                    }
+                    if (v > alpha) {
+                        alpha = v;
+                        if (alpha >= beta) {
+                            if (killers[ply][0] != m) {
+                                killers[ply][1] = killers[ply][0];
+                                killers[ply][0] = m;
+                            }
+                            history[m] += depth * depth;
+                            break;
+                        }
+                    }
+                }
+            }
+
+            int flag = best <= alphaIn ? UPPER : best >= beta ? LOWER : EXACT;
+            long entry = ((long) toTable(best, ply) << 24) | ((long) flag << 22)
+                    | ((long) Math.min(depth, 63) << 16) | (bestCell + 1);
+            table[slot] = key ^ entry;
+            table[slot + 1] = entry;
+            return best;
+        }
+    }
+
+    // Wins are stored relative to the node, not the root, so they stay valid at any ply
+    private static int toTable(int score, int ply) {
+        if (score > WIN - MAX_PLY) {
+            return score + ply;
+        }
+        return score < -(WIN - MAX_PLY) ? score - ply : score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score > WIN - MAX_PLY) {
+            return score - ply;
+        }
+        return score < -(WIN - MAX_PLY) ? score + ply : score;
+    }
+
+    // Self-play benchmark: java org.example.MnkSearch [rows] [cols] [k] [millis per move] [threads]
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 15;
+        int cols = args.length > 1 ? Integer.parseInt(args[1]) : 15;
+        int k = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        long millis = args.length > 3 ? Long.parseLong(args[3]) : 1000;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+
+        MnkBoard board = new MnkBoard(rows, cols, k);
+        MnkSearch search = new MnkSearch(22);
+        long nodes = 0, nanos = 0;
+        while (!board.isOver()) {
+            Result r = search.search(board, millis, 64, threads);
+            System.out.println((board.isXTurn() ? "X " : "O ") + r);
+            board.make(r.move);
+            nodes += r.nodes;
+            nanos += r.nanos;
+        }
+        String result = board.winner() == MnkBoard.X ? "X wins" : board.winner() == MnkBoard.O ? "O wins" : "Draw";
+        System.out.printf("%s after %d moves, %.0f knodes/s on %d threads%n",
+                result, board.moves(), nodes * 1e6 / Math.max(1, nanos), threads);
+    }
+}
@@ -0,0 +1,250 @@
+package org.example;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Locale;
+
+// Tick and frame timing for one game: latency histograms, bytes allocated per frame,
+// missed frames, input-to-frame latency, and matching JFR events (visible in JMC under
+// "Games" when a recording runs). Everything is recorded from the thread that ticks and
+// paints, so no locking.
+//
+// Run with -Dperf.out=file.json to get the numbers written at exit.
+class PerfMonitor {
+    // Loading an Event subclass wakes JFR up, a few hundred ms on a cold JVM, so the event
+    // classes live here and are only touched once a recording has started the recorder
+    private static final class Jfr {
+        @Name("org.example.Tick")
+        @Label("Game Tick")
+        @Category("Games")
+        static class TickEvent extends Event {
+            @Label("Game")
+            String game;
+        }
+
+        @Name("org.example.Frame")
+        @Label("Game Frame")
+        @Category("Games")
+        static class FrameEvent extends Event {
+            @Label("Game")
+            String game;
+
+            @Label("Allocated")
+            @DataAmount
+            long allocated;
+        }
+
+        static final EventType TICK_EVENTS = EventType.getEventType(TickEvent.class);
+        static final EventType FRAME_EVENTS = EventType.getEventType(FrameEvent.class);
+
+        static Event tick() {
+            return TICK_EVENTS.isEnabled() ? new TickEvent() : null;
+        }
+
+        static Event frame() {
+            return FRAME_EVENTS.isEnabled() ? new FrameEvent() : null;
+        }
+
+        static void commitTick(Event event, String game) {
+            ((TickEvent) event).game = game;
+            event.commit();
+        }
+
+        static void commitFrame(Event event, String game, long allocated) {
+            FrameEvent frame = (FrameEvent) event;
+            frame.game = game;
+            frame.allocated = allocated;
+            frame.commit();
+        }
+    }
+
+    // Both wake up on a background thread so they stay off the path to the first frame
+    private static volatile boolean jfrStarted;
+    private static volatile com.sun.management.ThreadMXBean threads;
+
+    static {
+        Thread init = new Thread(PerfMonitor::initInBackground, "perf-init");
+        init.setDaemon(true);
+        init.start();
+    }
+
+    private final String game;
+    private final LatencyHistogram tick = new LatencyHistogram();
+    private final LatencyHistogram frame = new LatencyHistogram();
+    private final LatencyHistogram allocation = new LatencyHistogram();
+    private final LatencyHistogram input = new LatencyHistogram();
+    private final long[] pendingInputs = new long[16]; // Applied but not yet on screen
+    private int pendingCount;
+    private long inputBudget;
+    private long missedFrames;
+    private long frameStart, frameAllocStart;
+    private Event tickEvent;
+    private Event frameEvent;
+
+    PerfMonitor(String game) {
+        this.game = game;
+        String out = System.getProperty("perf.out");
+        if (out != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> export(Paths.get(out)), "perf-export"));
+        }
+    }
+
+    private static void initInBackground() {
+        threads = allocationCounter();
+        // Called straight away if a recording is already running, e.g. -XX:StartFlightRecording
+        FlightRecorder.addListener(new FlightRecorderListener() {
+            @Override
+            public void recorderInitialized(FlightRecorder recorder) {
+                Jfr.TICK_EVENTS.isEnabled(); // Registers the event types here rather than mid-tick
+                jfrStarted = true;
+            }
+        });
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+            if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+                return threads;
+            }
+        }
+        return null;
+    }
+
+    // -1 until the counter is up (or if the JVM has none)
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean counter = threads;
+        return counter != null ? counter.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    // long start = perf.tickStart(); ...tick...; perf.tickEnd(start);
+    long tickStart() {
+        if (jfrStarted) {
+            tickEvent = Jfr.tick();
+            if (tickEvent != null) {
+                tickEvent.begin();
+            }
+        }
+        return System.nanoTime();
+    }
+
+    void tickEnd(long start) {
+        tick.record(System.nanoTime() - start);
+        if (tickEvent != null) {
+            Jfr.commitTick(tickEvent, game);
+            tickEvent = null;
+        }
+    }
+
+    void frameStart() {
+        if (jfrStarted) {
+            frameEvent = Jfr.frame();
+            if (frameEvent != null) {
+                frameEvent.begin();
+            }
+        }
+        frameAllocStart = allocatedBytes();
+        frameStart = System.nanoTime();
+    }
+
+    // An input pressed at the given nanoTime took effect this tick; it's measured when the
+    // frame that shows it has been presented
+    void inputApplied(long pressedAt) {
+        if (pendingCount < pendingInputs.length) {
+            pendingInputs[pendingCount++] = pressedAt;
+        }
+    }
+
+    // The overlay reports how many inputs made it to the screen within this long; games that
+    // don't set one don't track input
+    void setInputBudget(long nanos) {
+        inputBudget = nanos;
+    }
+
+    // Returns how long the frame took
+    long frameEnd() {
+        long end = System.nanoTime();
+        long nanos = end - frameStart;
+        for (int i = 0; i < pendingCount; i++) {
+            input.record(end - pendingInputs[i]);
+        }
+        pendingCount = 0;
+        long allocated = frameAllocStart < 0 ? 0 : allocatedBytes() - frameAllocStart;
+        frame.record(nanos);
+        if (frameAllocStart >= 0) {
+            allocation.record(allocated);
+        }
+        if (frameEvent != null) {
+            Jfr.commitFrame(frameEvent, game, allocated);
+            frameEvent = null;
+        }
+        return nanos;
+    }
+
+    void missedFrame() {
+        missedFrames++;
+    }
+
+    // Text for the debug overlay
+    String[] overlayLines() {
+        String[] timing = {
+                latencyLine("tick ", tick),
+                latencyLine("frame", frame),
+                String.format(Locale.ROOT, "alloc/frame  p50 %s  p99 %s  max %s", bytes(allocation.percentile(0.5)),
+                        bytes(allocation.percentile(0.99)), bytes(allocation.max())),
+                String.format(Locale.ROOT, "missed %d of %d frames", missedFrames, frame.count())
+        };
+        if (inputBudget == 0) {
+            return timing;
+        }
+        String[] lines = Arrays.copyOf(timing, timing.length + 2);
+        lines[4] = String.format(Locale.ROOT, "input>frame  p50 %.1f  p99 %.1f  max %.1f ms", input.percentile(0.5) / 1e6,
+                input.percentile(0.99) / 1e6, input.max() / 1e6);
+        lines[5] = String.format(Locale.ROOT, "%.0f%% of %d inputs shown within %.1f ms",
+                input.fractionAtOrBelow(inputBudget) * 100, input.count(), inputBudget / 1e6);
+        return lines;
+    }
+
+    private static String latencyLine(String name, LatencyHistogram h) {
+        return String.format(Locale.ROOT, "%s  p50 %.1f  p99 %.1f  max %.1f us", name,
+                h.percentile(0.5) / 1e3, h.percentile(0.99) / 1e3, h.max() / 1e3);
+    }
+
+    private static String bytes(long n) {
+        return n < 10_000 ? n + " B" : n / 1024 + " KB";
+    }
+
+    String toJson() {
+        return String.format(Locale.ROOT, "{%n  \"game\": \"%s\",%n  \"time\": \"%s\",%n  \"java\": \"%s\",%n"
+                        + "  \"os\": \"%s %s\",%n  \"cpus\": %d,%n  \"tickNanos\": %s,%n  \"frameNanos\": %s,%n"
+                        + "  \"allocatedBytesPerFrame\": %s,%n  \"inputToFrameNanos\": %s,%n  \"missedFrames\": %d%n}%n",
+                game, Instant.now(), System.getProperty("java.vm.version"), System.getProperty("os.name"),
+                System.getProperty("os.arch"), Runtime.getRuntime().availableProcessors(),
+                tick.toJson(), frame.toJson(), allocation.toJson(), input.toJson(), missedFrames);
+    }
+
+    void export(Path file) {
+        try {
+            Files.write(file, toJson().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.err.println("Could not write " + file + ": " + e);
+        }
+    }
+}
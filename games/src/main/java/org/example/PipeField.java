@@ -0,0 +1,141 @@
+package org.example;
+
+// Pipe pairs in spawn order, kept in a ring buffer of primitive arrays. Pipes never move in
+// world space; the field scrolls instead, so a tick is O(1) no matter how many pipes are live.
+// Every bird flying this field sees the same seeded pipe sequence, which comes from a
+// CourseGenerator a chunk at a time; only the pairs on screen are held here.
+class PipeField {
+    private final CourseGenerator course;
+    private final int horizon; // Pairs spawn until the course reaches this far right
+
+    private int[] worldX;
+    private int[] topHeight;
+    private int[] gap;
+    private int mask;
+    private int head; // Slot of the oldest pair
+    private int size;
+    private long headSeq; // Sequence number of the pair at head, counts every pair ever spawned
+    private long nextSeq; // Sequence number of the next pair to spawn
+    private int nextX; // World x the next pair spawns at
+    private CourseGenerator.Chunk chunk; // Chunk holding nextSeq
+    private int speed;
+    private int scroll;
+
+    PipeField(DifficultyCurve curve, int horizon) {
+        this.course = new CourseGenerator(curve);
+        this.horizon = horizon;
+        int capacity = horizon / Math.max(1, curve.spacing(0)) + 4;
+        int cap = Integer.highestOneBit(Math.max(4, capacity - 1) << 1);
+        worldX = new int[cap];
+        topHeight = new int[cap];
+        gap = new int[cap];
+        mask = cap - 1;
+    }
+
+    void reset(long seed) {
+        course.reset(seed);
+        head = 0;
+        size = 0;
+        headSeq = 0;
+        nextSeq = 0;
+        chunk = null;
+        scroll = 0;
+        speed = course.curve().speed(0);
+        nextX = FlappyEngine.WIDTH;
+        addPipe();
+    }
+
+    // Generate the next chunk in the background so spawning never has to
+    void setPrefetch(boolean prefetch) {
+        course.setPrefetch(prefetch);
+    }
+
+    // Moves every pair left, drops the ones that are fully off screen and spawns new ones
+    void advance(int dx) {
+        scroll += dx;
+        while (size > 0 && worldX[head] - scroll + FlappyEngine.PIPE_WIDTH < 0) {
+            head = (head + 1) & mask;
+            size--;
+            headSeq++;
+            speed = course.curve().speed(headSeq);
+        }
+        if (scroll > (1 << 30)) {
+            rebase();
+        }
+
+        // Add new pipes when needed
+        while (size == 0 || nextX - scroll < horizon) {
+            addPipe();
+        }
+    }
+
+    // Pair nextSeq's data; the generator is only consulted once per chunk
+    private CourseGenerator.Chunk currentChunk() {
+        long index = nextSeq / CourseGenerator.CHUNK;
+        if (chunk == null || chunk.index != index) {
+            chunk = course.chunk(index);
+        }
+        return chunk;
+    }
+
+    private void addPipe() {
+        if (size == 0) {
+            nextX = FlappyEngine.WIDTH + scroll;
+        }
+        CourseGenerator.Chunk c = currentChunk();
+        int i = (int) (nextSeq % CourseGenerator.CHUNK);
+        add(nextX - scroll, c.topHeight[i], c.gap[i]);
+        nextSeq++;
+        nextX += currentChunk().spacing[(int) (nextSeq % CourseGenerator.CHUNK)];
+    }
+
+    int size() { return size; }
+    long headSeq() { return headSeq; }
+    DifficultyCurve curve() { return course.curve(); }
+
+    // Scroll speed for the current tick; the oldest pair on screen sets the pace
+    int speed() { return speed; }
+
+    // Screen x of the i-th live pair, 0 being the oldest
+    int x(int i) { return worldX[(head + i) & mask] - scroll; }
+    int topHeight(int i) { return topHeight[(head + i) & mask]; }
+    int gap(int i) { return gap[(head + i) & mask]; }
+    int lastX() { return x(size - 1); }
+
+    private void add(int x, int height, int gapHeight) {
+        if (size == worldX.length) {
+            grow();
+        }
+        int slot = (head + size) & mask;
+        worldX[slot] = x + scroll;
+        topHeight[slot] = height;
+        gap[slot] = gapHeight;
+        size++;
+    }
+
+    private void rebase() {
+        for (int i = 0; i < size; i++) {
+            worldX[(head + i) & mask] -= scroll;
+        }
+        nextX -= scroll;
+        scroll = 0;
+    }
+
+    // Rare: only when a stress course outgrows the initial capacity
+    private void grow() {
+        int cap = worldX.length;
+        int[] x = new int[cap * 2];
+        int[] h = new int[cap * 2];
+        int[] g = new int[cap * 2];
+        for (int i = 0; i < size; i++) {
+            x[i] = worldX[(head + i) & mask];
+            h[i] = topHeight[(head + i) & mask];
+            g[i] = gap[(head + i) & mask];
+        }
+        worldX = x;
+        topHeight = h;
+        gap = g;
+        mask = cap * 2 - 1;
+        head = 0;
+    }
+}
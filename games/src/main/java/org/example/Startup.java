@@ -0,0 +1,36 @@
+package org.example;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+// Time to first frame. Every window calls frameShown() once it has put a frame on screen;
+// with -Dstartup=report the first call prints how long after JVM start that was, and with
+// -Dstartup=exit it also exits (StartupBenchmark and CDS training runs use that).
+class Startup {
+    static final String FIRST_FRAME = "first frame";
+
+    private static final String MODE = System.getProperty("startup", "");
+    private static boolean shown; // Only touched when MODE is set
+
+    private Startup() {}
+
+    static void frameShown(String what) {
+        if (MODE.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis(); // Before anything below gets loaded
+        synchronized (Startup.class) {
+            if (shown) {
+                return;
+            }
+            shown = true;
+        }
+        // The management classes cost tens of ms, but only after the frame is up
+        long sinceStart = now - ManagementFactory.getRuntimeMXBean().getStartTime();
+        System.out.printf(Locale.ROOT, "%s %s %d ms%n", FIRST_FRAME, what, sinceStart);
+        System.out.flush();
+        if (MODE.equals("exit")) {
+            System.exit(0);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package org.example;
+
+import java.awt.GraphicsEnvironment;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+// Cold-start benchmark: launches fresh JVMs on the launcher menu or straight into a game and
+// times how long each takes to put its first frame on screen (the window reports it through
+// Startup and exits). Every target runs with the JDK's default class-data sharing and with an
+// AppCDS archive trained on that target, interleaved so both see the same machine state.
+//
+// java org.example.StartupBenchmark [--runs=10] [--targets=launcher,flappybird,tictactoe]
+//                                   [--cds=target/cds] [--no-cds]
+class StartupBenchmark {
+    private static final long TIMEOUT_SECONDS = 60;
+
+    private final String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+    private final String classPath = System.getProperty("java.class.path");
+
+    // Wall time from spawning the JVM to reading its first-frame line, and the JVM's own
+    // figure from its start time; both in ms
+    static final class Sample {
+        final long wall, inJvm;
+
+        Sample(long wall, long inJvm) {
+            this.wall = wall;
+            this.inJvm = inJvm;
+        }
+    }
+
+    private List<String> command(String target, String... vmOptions) {
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(Arrays.asList(vmOptions));
+        command.add("-Dstartup=exit");
+        command.add("-cp");
+        command.add(classPath);
+        command.add(GameLauncher.class.getName());
+        if (target.equals("flappybird")) {
+            command.add("flappybird");
+            command.add("--record=none");
+        } else if (!target.equals("launcher")) {
+            command.add(target);
+        }
+        return command;
+    }
+
+    Sample run(String target, String... vmOptions) throws IOException, InterruptedException {
+        ProcessBuilder builder = new ProcessBuilder(command(target, vmOptions)).redirectErrorStream(true);
+        long start = System.nanoTime();
+        Process process = builder.start();
+        StringBuilder output = new StringBuilder();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            for (String line; (line = in.readLine()) != null; ) {
+                if (line.startsWith(Startup.FIRST_FRAME)) {
+                    long wall = (System.nanoTime() - start) / 1_000_000;
+                    String[] parts = line.split(" ");
+                    long inJvm = Long.parseLong(parts[parts.length - 2]);
+                    process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                    return new Sample(wall, inJvm);
+                }
+                output.append(line).append('\n');
+            }
+        } finally {
+            process.destroyForcibly();
+        }
+        throw new IOException(target + " exited without showing a frame:\n" + output);
+    }
+
+    // One run with -XX:ArchiveClassesAtExit dumps every class the target loaded on its way to
+    // the first frame, JDK and application alike
+    Path train(String target, Path dir) throws IOException, InterruptedException {
+        Files.createDirectories(dir);
+        Path archive = dir.resolve(target + ".jsa");
+        Files.deleteIfExists(archive);
+        run(target, "-XX:ArchiveClassesAtExit=" + archive);
+        if (!Files.exists(archive)) {
+            throw new IOException("The JVM didn't write " + archive);
+        }
+        return archive;
+    }
+
+    private static String summary(String name, List<Sample> samples) {
+        long[] wall = samples.stream().mapToLong(s -> s.wall).sorted().toArray();
+        long[] inJvm = samples.stream().mapToLong(s -> s.inJvm).sorted().toArray();
+        return String.format(Locale.ROOT, "  %-12s wall p50 %4d  min %4d  max %4d ms   in-JVM p50 %4d ms",
+                name, wall[wall.length / 2], wall[0], wall[wall.length - 1], inJvm[inJvm.length / 2]);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int runs = 10;
+        String[] targets = {"launcher", "flappybird", "tictactoe"};
+        Path cdsDir = Paths.get("target", "cds");
+        boolean cds = true;
+        for (String arg : args) {
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (arg.startsWith("--runs=")) {
+                runs = Integer.parseInt(value);
+            } else if (arg.startsWith("--targets=")) {
+                targets = value.split(",");
+            } else if (arg.startsWith("--cds=")) {
+                cdsDir = Paths.get(value);
+            } else if (arg.equals("--no-cds")) {
+                cds = false;
+            }
+        }
+        if (GraphicsEnvironment.isHeadless()) {
+            System.out.println("Needs a display: every run opens a window");
+            return;
+        }
+
+        StartupBenchmark benchmark = new StartupBenchmark();
+        System.out.printf("Time to first frame over %d cold starts each (java %s)%n", runs,
+                System.getProperty("java.version"));
+        for (String target : targets) {
+            Path archive = cds ? benchmark.train(target, cdsDir) : null;
+            List<Sample> plain = new ArrayList<>(), shared = new ArrayList<>();
+            for (int i = 0; i < runs; i++) {
+                plain.add(benchmark.run(target));
+                if (archive != null) {
+                    shared.add(benchmark.run(target, "-XX:SharedArchiveFile=" + archive));
+                }
+            }
+            System.out.println(target);
+            System.out.println(summary("default CDS", plain));
+            if (archive != null) {
+                System.out.println(summary("AppCDS", shared));
+            }
+        }
+    }
+}
@@ -0,0 +1,627 @@
+package org.example;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.CRC32;
+
+// Lifetime stats for both games, kept in a directory as two files:
+//   stats.snapshot - every aggregate as of some log generation, replaced by atomic rename
+//   stats.log      - fixed-size CRC'd records appended since that snapshot
+// Callers never touch the disk: record* updates the in-memory view and queues the record for
+// a writer thread that appends in batches and fsyncs once per batch. Every COMPACT_EVERY
+// records the writer folds the log into a new snapshot and starts an empty log, so opening
+// reads one snapshot plus a bounded tail. A torn record at the end of the log (kill -9 in
+// the middle of a write) fails its CRC and is cut off on the next open.
+class StatsStore implements Closeable {
+    static final int SCORE_BUCKETS = 101; // Scores 0..99 exactly, 100+ in the last bucket
+    static final int DURATION_BUCKETS = 40; // Power-of-two buckets of game length
+
+    private static final byte SESSION = 0, FLAPPY = 1, TICTACTOE = 2, FLUSH = -1, CLOSE = -2;
+    private static final int LOG_MAGIC = 0x53544C47; // "STLG"
+    private static final int SNAPSHOT_MAGIC = 0x5354534E; // "STSN"
+    private static final int VERSION = 1;
+    private static final int SNAPSHOT_VERSION = 2; // 2 added session ids; 1 is still read
+    private static final int LOG_HEADER = 16;
+    private static final int RECORD = 32; // crc, kind + padding, value, session, duration, time
+    private static final int COMPACT_EVERY = 4096;
+    private static final int MAX_BATCH = 256;
+    private static final int MAX_SESSIONS = 100; // Older sessions only live on in the totals
+
+    private final Path dir;
+    private final State live; // What queries see, including records still queued
+    private final State durable; // What is on disk; only the writer touches it
+    private final int session;
+    private final BlockingQueue<Record> queue = new LinkedBlockingQueue<>();
+    private FileChannel log; // null when running without persistence
+    private FileLock lock;
+    private long generation;
+    private int sinceSnapshot;
+    private Thread writer;
+
+    // One game result; kind FLUSH/CLOSE are markers for the writer
+    private static final class Record {
+        final byte kind;
+        final int value, session;
+        final long duration, time;
+        final CountDownLatch done;
+
+        Record(byte kind, int value, int session, long duration, long time, CountDownLatch done) {
+            this.kind = kind;
+            this.value = value;
+            this.session = session;
+            this.duration = duration;
+            this.time = time;
+            this.done = done;
+        }
+    }
+
+    // Per-run summary, one per time a game was opened; only the last MAX_SESSIONS are kept
+    static final class Session {
+        final int id;
+        final long started;
+        int flappyGames, flappyBest;
+        long flappyTicks;
+        int ticTacToeGames;
+        long ticTacToeMillis;
+
+        Session(int id, long started) {
+            this.id = id;
+            this.started = started;
+        }
+
+        Session copy() {
+            Session s = new Session(id, started);
+            s.flappyGames = flappyGames;
+            s.flappyBest = flappyBest;
+            s.flappyTicks = flappyTicks;
+            s.ticTacToeGames = ticTacToeGames;
+            s.ticTacToeMillis = ticTacToeMillis;
+            return s;
+        }
+    }
+
+    private static final class State {
+        int flappyBest;
+        long flappyGames, flappyTicks;
+        long[] scores = new long[SCORE_BUCKETS];
+        long[] durations = new long[DURATION_BUCKETS];
+        long xWins, oWins, draws, ticTacToeMillis;
+        ArrayList<Session> sessions = new ArrayList<>(); // The last MAX_SESSIONS, oldest first
+        int nextSession; // Id for the next session; ids keep counting after old ones are dropped
+
+        void apply(byte kind, int value, int session, long duration, long time) {
+            if (kind == SESSION) {
+                sessions.add(new Session(session, time));
+                nextSession = Math.max(nextSession, session + 1);
+                trimSessions();
+                return;
+            }
+            Session s = session(session);
+            if (kind == FLAPPY) {
+                flappyBest = Math.max(flappyBest, value);
+                flappyGames++;
+                flappyTicks += duration;
+                scores[Math.min(value, SCORE_BUCKETS - 1)]++;
+                durations[Math.min(63 - Long.numberOfLeadingZeros(Math.max(1, duration)), DURATION_BUCKETS - 1)]++;
+                if (s != null) {
+                    s.flappyGames++;
+                    s.flappyBest = Math.max(s.flappyBest, value);
+                    s.flappyTicks += duration;
+                }
+            } else if (kind == TICTACTOE) {
+                if (value == MnkBoard.X) {
+                    xWins++;
+                } else if (value == MnkBoard.O) {
+                    oWins++;
+                } else {
+                    draws++;
+                }
+                ticTacToeMillis += duration;
+                if (s != null) {
+                    s.ticTacToeGames++;
+                    s.ticTacToeMillis += duration;
+                }
+            }
+        }
+
+        // Records almost always belong to the newest session, so look from the end
+        Session session(int id) {
+            for (int i = sessions.size() - 1; i >= 0; i--) {
+                if (sessions.get(i).id == id) {
+                    return sessions.get(i);
+                }
+            }
+            return null;
+        }
+
+        void trimSessions() {
+            if (sessions.size() > MAX_SESSIONS) {
+                sessions.subList(0, sessions.size() - MAX_SESSIONS).clear();
+            }
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeInt(flappyBest);
+            out.writeLong(flappyGames);
+            out.writeLong(flappyTicks);
+            for (long n : scores) {
+                out.writeLong(n);
+            }
+            for (long n : durations) {
+                out.writeLong(n);
+            }
+            out.writeLong(xWins);
+            out.writeLong(oWins);
+            out.writeLong(draws);
+            out.writeLong(ticTacToeMillis);
+            out.writeInt(nextSession);
+            out.writeInt(sessions.size());
+            for (Session s : sessions) {
+                out.writeInt(s.id);
+                out.writeLong(s.started);
+                out.writeInt(s.flappyGames);
+                out.writeInt(s.flappyBest);
+                out.writeLong(s.flappyTicks);
+                out.writeInt(s.ticTacToeGames);
+                out.writeLong(s.ticTacToeMillis);
+            }
+        }
+
+        void read(DataInputStream in, int version) throws IOException {
+            flappyBest = in.readInt();
+            flappyGames = in.readLong();
+            flappyTicks = in.readLong();
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] = in.readLong();
+            }
+            for (int i = 0; i < durations.length; i++) {
+                durations[i] = in.readLong();
+            }
+            xWins = in.readLong();
+            oWins = in.readLong();
+            draws = in.readLong();
+            ticTacToeMillis = in.readLong();
+            nextSession = version >= 2 ? in.readInt() : 0;
+            int n = in.readInt();
+            for (int i = 0; i < n; i++) {
+                Session s = new Session(version >= 2 ? in.readInt() : i, in.readLong());
+                s.flappyGames = in.readInt();
+                s.flappyBest = in.readInt();
+                s.flappyTicks = in.readLong();
+                s.ticTacToeGames = in.readInt();
+                s.ticTacToeMillis = in.readLong();
+                sessions.add(s);
+                nextSession = Math.max(nextSession, s.id + 1);
+            }
+            trimSessions();
+        }
+
+        State copy() {
+            State c = new State();
+            c.flappyBest = flappyBest;
+            c.flappyGames = flappyGames;
+            c.flappyTicks = flappyTicks;
+            c.scores = scores.clone();
+            c.durations = durations.clone();
+            c.xWins = xWins;
+            c.oWins = oWins;
+            c.draws = draws;
+            c.ticTacToeMillis = ticTacToeMillis;
+            c.nextSession = nextSession;
+            for (Session s : sessions) {
+                c.sessions.add(s.copy());
+            }
+            return c;
+        }
+    }
+
+    private StatsStore(Path dir, State state) {
+        this.dir = dir;
+        this.durable = state;
+        this.live = state.copy();
+        this.session = state.nextSession;
+    }
+
+    // Opens (or creates) the store in dir and starts a new session. If the directory can't
+    // be used - another instance holds it, disk trouble - stats are kept for this run only.
+    static StatsStore open(Path dir) {
+        try {
+            return openOrThrow(dir);
+        } catch (IOException e) {
+            System.err.println("Stats not saved this session: " + e.getMessage());
+            StatsStore store = new StatsStore(dir, new State());
+            store.startSession();
+            return store;
+        }
+    }
+
+    static StatsStore openOrThrow(Path dir) throws IOException {
+        return openOrThrow(dir, true);
+    }
+
+    private static StatsStore openOrThrow(Path dir, boolean newSession) throws IOException {
+        Files.createDirectories(dir);
+        FileChannel channel = FileChannel.open(dir.resolve("stats.log"), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileLock lock = channel.tryLock();
+        if (lock == null) {
+            channel.close();
+            throw new IOException(dir + " is in use by another instance");
+        }
+        try {
+            State state = new State();
+            Path snapshot = dir.resolve("stats.snapshot");
+            long generation;
+            boolean rebuilt = false;
+            try {
+                generation = readSnapshot(snapshot, state);
+            } catch (IOException e) {
+                // The log still holds everything since the lost snapshot, which beats nothing.
+                // The bad file is kept aside and replaced as soon as the log is read.
+                System.err.println(e.getMessage() + ", rebuilding stats from the log");
+                Files.move(snapshot, dir.resolve("stats.snapshot.corrupt"), StandardCopyOption.REPLACE_EXISTING);
+                state = new State();
+                generation = logGeneration(channel);
+                rebuilt = true;
+            }
+            int replayed = replayLog(channel, generation, state);
+
+            StatsStore store = new StatsStore(dir, state);
+            store.log = channel;
+            store.lock = lock;
+            store.generation = generation;
+            store.sinceSnapshot = replayed;
+            if (rebuilt) {
+                store.compact(); // Without a snapshot the next open would take this log for a stale one
+            }
+            store.writer = new Thread(store::writeLoop, "stats-writer");
+            store.writer.setDaemon(true);
+            store.writer.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(store::close, "stats-close"));
+            if (newSession) {
+                store.startSession();
+            }
+            return store;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void startSession() {
+        submit(SESSION, 0, 0);
+    }
+
+    // Snapshot generation, or 0 (and an empty state) when there is no snapshot yet
+    private static long readSnapshot(Path file, State state) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        if (bytes.length < 20) {
+            throw new IOException("Truncated stats snapshot " + file);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - 4);
+        if ((int) crc.getValue() != ByteBuffer.wrap(bytes, bytes.length - 4, 4).getInt()) {
+            throw new IOException("Corrupt stats snapshot " + file);
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        int version = in.readInt() == SNAPSHOT_MAGIC ? in.readInt() : -1;
+        if (version < 1 || version > SNAPSHOT_VERSION) {
+            throw new IOException("Unknown stats snapshot format " + file);
+        }
+        long generation = in.readLong();
+        state.read(in, version);
+        return generation;
+    }
+
+    // Generation in the log's header, or 0 if it has no valid header
+    private static long logGeneration(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(LOG_HEADER);
+        channel.read(header, 0);
+        header.flip();
+        if (header.remaining() < LOG_HEADER || header.getInt() != LOG_MAGIC || header.getInt() != VERSION) {
+            return 0;
+        }
+        return header.getLong();
+    }
+
+    // Applies the log's records on top of the snapshot and cuts off a torn tail. A log
+    // from an older generation was already folded into the snapshot (the process died
+    // between renaming the snapshot and starting the new log), so it is thrown away.
+    private static int replayLog(FileChannel channel, long generation, State state) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(LOG_HEADER);
+        channel.read(header, 0);
+        header.flip();
+        if (header.remaining() < LOG_HEADER || header.getInt() != LOG_MAGIC || header.getInt() != VERSION
+                || header.getLong() != generation) {
+            resetLog(channel, generation);
+            return 0;
+        }
+
+        long size = channel.size();
+        ByteBuffer body = ByteBuffer.allocate((int) Math.min(Integer.MAX_VALUE, size - LOG_HEADER));
+        channel.read(body, LOG_HEADER);
+        body.flip();
+        CRC32 crc = new CRC32();
+        int records = 0;
+        while (body.remaining() >= RECORD) {
+            int start = body.position();
+            int expected = body.getInt();
+            crc.reset();
+            crc.update(body.array(), start + 4, RECORD - 4);
+            if ((int) crc.getValue() != expected) {
+                break;
+            }
+            byte kind = body.get();
+            body.position(body.position() + 3);
+            state.apply(kind, body.getInt(), body.getInt(), body.getLong(), body.getLong());
+            records++;
+        }
+        long valid = LOG_HEADER + (long) records * RECORD;
+        if (valid < size) {
+            channel.truncate(valid);
+            channel.force(true);
+        }
+        channel.position(valid);
+        return records;
+    }
+
+    private static void resetLog(FileChannel channel, long generation) throws IOException {
+        channel.truncate(0);
+        ByteBuffer header = ByteBuffer.allocate(LOG_HEADER);
+        header.putInt(LOG_MAGIC).putInt(VERSION).putLong(generation).flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+        channel.force(true);
+        channel.position(LOG_HEADER);
+    }
+
+    void recordFlappy(int score, long ticks) {
+        submit(FLAPPY, score, ticks);
+    }
+
+    // winner is MnkBoard.X, MnkBoard.O or NONE for a draw
+    void recordTicTacToe(int winner, long millis) {
+        submit(TICTACTOE, winner, millis);
+    }
+
+    private void submit(byte kind, int value, long duration) {
+        long now = System.currentTimeMillis();
+        synchronized (live) {
+            live.apply(kind, value, session, duration, now);
+        }
+        if (log != null) {
+            queue.add(new Record(kind, value, session, duration, now, null));
+        }
+    }
+
+    // Blocks until everything recorded so far is on disk
+    void flush() {
+        marker(FLUSH);
+    }
+
+    @Override
+    public void close() {
+        if (writer != null && writer.isAlive()) {
+            marker(CLOSE);
+        }
+    }
+
+    private void marker(byte kind) {
+        if (log == null || writer == null || !writer.isAlive()) {
+            return;
+        }
+        CountDownLatch done = new CountDownLatch(1);
+        queue.add(new Record(kind, 0, 0, 0, 0, done));
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeLoop() {
+        ArrayList<Record> batch = new ArrayList<>(MAX_BATCH);
+        ByteBuffer out = ByteBuffer.allocate(MAX_BATCH * RECORD);
+        CRC32 crc = new CRC32();
+        boolean closing = false;
+        while (!closing) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+
+            out.clear();
+            for (Record r : batch) {
+                if (r.kind < 0) {
+                    continue;
+                }
+                int start = out.position();
+                out.putInt(0).put(r.kind).put((byte) 0).putShort((short) 0)
+                        .putInt(r.value).putInt(r.session).putLong(r.duration).putLong(r.time);
+                crc.reset();
+                crc.update(out.array(), start + 4, RECORD - 4);
+                out.putInt(start, (int) crc.getValue());
+            }
+            out.flip();
+            try {
+                int records = out.remaining() / RECORD;
+                if (records > 0) {
+                    while (out.hasRemaining()) {
+                        log.write(out);
+                    }
+                    log.force(false);
+                    sinceSnapshot += records;
+                }
+                for (Record r : batch) {
+                    if (r.kind >= 0) {
+                        durable.apply(r.kind, r.value, r.session, r.duration, r.time);
+                    }
+                }
+                if (sinceSnapshot >= COMPACT_EVERY) {
+                    compact();
+                }
+            } catch (IOException e) {
+                System.err.println("Stats write failed, no longer saving: " + e);
+                closing = true;
+            }
+
+            for (Record r : batch) {
+                if (r.kind == CLOSE) {
+                    closing = true;
+                }
+            }
+            if (closing) {
+                closeFiles();
+            }
+            for (Record r : batch) {
+                if (r.done != null) {
+                    r.done.countDown();
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    // Snapshot first, then the new log: a crash in between leaves a log of the previous
+    // generation, which the next open recognizes and discards
+    private void compact() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(bytes);
+        data.writeInt(SNAPSHOT_MAGIC);
+        data.writeInt(SNAPSHOT_VERSION);
+        data.writeLong(generation + 1);
+        durable.write(data);
+        data.flush();
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        data.writeInt((int) crc.getValue());
+
+        Path tmp = dir.resolve("stats.snapshot.tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(tmp, dir.resolve("stats.snapshot"), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+
+        generation++;
+        resetLog(log, generation);
+        sinceSnapshot = 0;
+    }
+
+    private void closeFiles() {
+        try {
+            lock.release();
+            log.close();
+        } catch (IOException e) {
+            System.err.println("Closing stats log: " + e);
+        }
+    }
+
+    int flappyHighScore() { synchronized (live) { return live.flappyBest; } }
+    long flappyGames() { synchronized (live) { return live.flappyGames; } }
+    long xWins() { synchronized (live) { return live.xWins; } }
+    long oWins() { synchronized (live) { return live.oWins; } }
+    long draws() { synchronized (live) { return live.draws; } }
+
+    double flappyMeanTicks() {
+        synchronized (live) {
+            return live.flappyGames == 0 ? 0 : (double) live.flappyTicks / live.flappyGames;
+        }
+    }
+
+    double ticTacToeMeanMillis() {
+        synchronized (live) {
+            long games = live.xWins + live.oWins + live.draws;
+            return games == 0 ? 0 : (double) live.ticTacToeMillis / games;
+        }
+    }
+
+    // Games per score: index i counts scores of exactly i, the last bucket everything above
+    long[] scoreHistogram() {
+        synchronized (live) {
+            return live.scores.clone();
+        }
+    }
+
+    // Games per length: bucket i counts runs of 2^i to 2^(i+1)-1 ticks
+    long[] durationHistogram() {
+        synchronized (live) {
+            return live.durations.clone();
+        }
+    }
+
+    // Smallest score at least the given fraction of runs reached or beat
+    int scorePercentile(double fraction) {
+        synchronized (live) {
+            long target = (long) Math.ceil(fraction * live.flappyGames);
+            long seen = 0;
+            for (int i = 0; i < live.scores.length; i++) {
+                seen += live.scores[i];
+                if (seen >= target && seen > 0) {
+                    return i;
+                }
+            }
+            return 0;
+        }
+    }
+
+    List<Session> sessions() {
+        synchronized (live) {
+            List<Session> copy = new ArrayList<>(live.sessions.size());
+            for (Session s : live.sessions) {
+                copy.add(s.copy());
+            }
+            return copy;
+        }
+    }
+
+    Session currentSession() {
+        synchronized (live) {
+            return live.session(session).copy();
+        }
+    }
+
+    // java org.example.StatsStore [dir]   - prints what a store holds
+    public static void main(String[] args) throws IOException {
+        Path dir = Paths.get(args.length > 0 ? args[0] : "stats");
+        try (StatsStore store = openOrThrow(dir, false)) {
+            System.out.printf("Flappybird: %d runs, best %d, median %d, mean %.0f ticks%n",
+                    store.flappyGames(), store.flappyHighScore(), store.scorePercentile(0.5), store.flappyMeanTicks());
+            System.out.printf("TicTacToe: X %d, O %d, draws %d, mean %.1f s%n",
+                    store.xWins(), store.oWins(), store.draws(), store.ticTacToeMeanMillis() / 1000);
+            List<Session> sessions = store.sessions();
+            for (Session s : sessions.subList(Math.max(0, sessions.size() - 10), sessions.size())) {
+                System.out.printf("  session %d at %tF %<tT: %d runs (best %d), %d TicTacToe games%n",
+                        s.id, s.started, s.flappyGames, s.flappyBest, s.ticTacToeGames);
+            }
+        }
+    }
+}
@@ -0,0 +1,752 @@
+package org.example;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import java.awt.*;
+import java.awt.event.*;
+import java.awt.geom.RoundRectangle2D;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+public class TicTacToe extends JFrame {
+
+    // Board sizes offered in the size selector: rows, cols, k
+    private static final int[][] SIZES = {{3, 3, 3}, {4, 4, 4}, {7, 7, 5}, {15, 15, 5}};
+    private static final String[] SIZE_NAMES = {
+            "3x3 \u00b7 3 in a row", "4x4 \u00b7 solved", "7x7 \u00b7 5 in a row", "15x15 Gomoku"};
+    private static final long THINK_MILLIS = 1000; // Search budget per move on boards past 3x3
+
+    private BoardView boardView;
+    private JLabel statusLabel, searchLabel;
+    private ScoreCard xScoreCard, oScoreCard;
+    private int xWins = 0, oWins = 0;
+    private final StatsStore stats = StatsStore.open(Paths.get("stats", "tictactoe"));
+    private long gameStarted = System.currentTimeMillis();
+
+    // Move handling and board paint timing; F3 toggles the overlay
+    private static final long FRAME_BUDGET_NANOS = 16_666_667L;
+    private final PerfMonitor perf = new PerfMonitor("tictactoe");
+    private JComponent perfOverlay;
+    private MnkBoard board;
+    private TicTacToeSolver.Difficulty computer; // Plays O when set; null for two players
+    private final Random aiRandom = new Random();
+    private MnkSearch search; // Its 16 MB table is only allocated when a board first needs it
+    private TicTacToeDatabase database; // Solved 4x4, mapped on first use; the search stands in until then
+    private boolean databaseLoading;
+    private final int searchThreads = Runtime.getRuntime().availableProcessors();
+    private boolean thinking; // A background search is running; the board ignores clicks
+    private Cancellation searchCancel = new Cancellation(); // Stops the running search, if any
+    private int game; // Bumped on every reset, undo and redo so a search from an old position is dropped
+    private boolean resultCounted; // This game's result is already in the scores and stats
+    private boolean analysis; // Both sides are played by hand and every position shown gets evaluated
+    private JButton analysisBtn;
+    private JComboBox<String> modeBox, sizeBox;
+
+    // Online play against TicTacToeServer; the server echoes every move, ours included
+    private TicTacToeClient online;
+    private int onlineMark; // Our side in the current online match, NONE while queued
+
+    // Modern colors
+    private final Color BG = new Color(25, 25, 35);
+    private final Color CARD = new Color(40, 40, 55);
+    private final Color GRID = new Color(50, 50, 70);
+    private final Color X_COLOR = new Color(0, 200, 255);
+    private final Color O_COLOR = new Color(255, 100, 100);
+    private final Color WIN = new Color(0, 230, 150);
+    private final Color HINT = new Color(255, 200, 0, 90);
+
+    public TicTacToe(int rows, int cols, int k) {
+        // The scoreboard carries over from earlier runs
+        xWins = (int) stats.xWins();
+        oWins = (int) stats.oWins();
+
+        setTitle("Tic Tac Toe");
+        setSize(600, 750);
+        setDefaultCloseOperation(EXIT_ON_CLOSE);
+        setLocationRelativeTo(null);
+        setLayout(new BorderLayout(10, 10));
+        getContentPane().setBackground(BG);
+
+        // Header
+        JPanel header = new JPanel(new BorderLayout());
+        header.setBackground(BG);
+        header.setBorder(new EmptyBorder(20, 20, 10, 20));
+
+        statusLabel = new JLabel("X's Turn", SwingConstants.CENTER);
+        statusLabel.setFont(new Font("Segoe UI", Font.BOLD, 28));
+        statusLabel.setForeground(Color.WHITE);
+        header.add(statusLabel, BorderLayout.NORTH);
+
+        searchLabel = new JLabel(" ", SwingConstants.CENTER);
+        searchLabel.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+        searchLabel.setForeground(Color.GRAY);
+        header.add(searchLabel, BorderLayout.CENTER);
+
+        // ScoreBoard
+        JPanel scorePanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 30, 10));
+        scorePanel.setBackground(BG);
+
+        xScoreCard = new ScoreCard("X", X_COLOR);
+        oScoreCard = new ScoreCard("O", O_COLOR);
+        updateScores();
+        scorePanel.add(xScoreCard);
+        scorePanel.add(oScoreCard);
+
+        header.add(scorePanel, BorderLayout.SOUTH);
+
+        // Game Pannel
+        boardView = new BoardView(BG, GRID, X_COLOR, O_COLOR) {
+            private boolean painted;
+
+            @Override
+            public void paint(Graphics g) {
+                perf.frameStart();
+                super.paint(g);
+                if (perf.frameEnd() > FRAME_BUDGET_NANOS) {
+                    perf.missedFrame();
+                }
+                if (!painted) {
+                    painted = true;
+                    SwingUtilities.invokeLater(() -> Startup.frameShown("tictactoe"));
+                }
+            }
+        };
+        boardView.setOnClick(this::cellClicked);
+        board = new MnkBoard(rows, cols, k);
+        boardView.setBoard(board);
+
+        // Main control
+
+        JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 20, 20));
+        controlPanel.setBackground(BG);
+
+        JButton restartBtn = createModernButton("Restart Game", new Color(100, 150, 255));
+        restartBtn.addActionListener(e -> resetGame());
+
+        JButton newGameBtn = createModernButton("New Game", new Color(150, 100, 255));
+        newGameBtn.addActionListener(e -> {
+            xWins = oWins = 0;
+            updateScores();
+            resetGame();
+        });
+
+        JButton hintBtn = createModernButton("Hint", new Color(255, 170, 0));
+        hintBtn.addActionListener(e -> showHint());
+
+        JButton undoBtn = createModernButton("\u25c0 Undo", new Color(90, 90, 120));
+        undoBtn.addActionListener(e -> undo());
+        JButton redoBtn = createModernButton("Redo \u25b6", new Color(90, 90, 120));
+        redoBtn.addActionListener(e -> redo());
+        analysisBtn = createModernButton("Analyze", new Color(0, 160, 130));
+        analysisBtn.addActionListener(e -> setAnalysis(!analysis));
+        for (JButton btn : new JButton[]{undoBtn, redoBtn, analysisBtn}) {
+            btn.setPreferredSize(new Dimension(120, 45));
+        }
+
+        modeBox = new JComboBox<>(new String[]{
+                "2 Players", "vs Computer (Easy)", "vs Computer (Medium)", "vs Computer (Perfect)"});
+        modeBox.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        modeBox.addActionListener(e -> {
+            int mode = modeBox.getSelectedIndex();
+            computer = mode == 0 ? null : TicTacToeSolver.Difficulty.values()[mode - 1];
+            resetGame();
+        });
+
+        sizeBox = new JComboBox<>(SIZE_NAMES);
+        sizeBox.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        for (int i = 0; i < SIZES.length; i++) {
+            if (SIZES[i][0] == rows && SIZES[i][1] == cols && SIZES[i][2] == k) {
+                sizeBox.setSelectedIndex(i);
+            }
+        }
+        sizeBox.addActionListener(e -> {
+            int[] size = SIZES[sizeBox.getSelectedIndex()];
+            board = new MnkBoard(size[0], size[1], size[2]);
+            xWins = oWins = 0;
+            updateScores();
+            boardView.setBoard(board);
+            resetGame();
+            isSolved4x4(); // Starts mapping the database before the first move needs it
+        });
+
+        controlPanel.add(restartBtn);
+        controlPanel.add(newGameBtn);
+        controlPanel.add(hintBtn);
+        controlPanel.add(undoBtn);
+        controlPanel.add(redoBtn);
+        controlPanel.add(analysisBtn);
+        controlPanel.add(modeBox);
+        controlPanel.add(sizeBox);
+
+        // Adding all components
+        add(header, BorderLayout.NORTH);
+        add(boardView, BorderLayout.CENTER);
+        add(controlPanel, BorderLayout.SOUTH);
+
+        installPerfOverlay();
+        bindHistoryKeys();
+        renderBoard();
+        setVisible(true);
+    }
+
+    // Drawn on the glass pane so it floats over the board without touching the layout
+    private void installPerfOverlay() {
+        perfOverlay = new JComponent() {
+            @Override
+            protected void paintComponent(Graphics g) {
+                String[] lines = perf.overlayLines();
+                g.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+                g.setColor(new Color(0, 0, 0, 170));
+                g.fillRect(10, 10, 330, lines.length * 15 + 10);
+                g.setColor(Color.WHITE);
+                for (int i = 0; i < lines.length; i++) {
+                    g.drawString(lines[i], 18, 25 + i * 15);
+                }
+            }
+        };
+        setGlassPane(perfOverlay);
+
+        Timer refresh = new Timer(250, e -> perfOverlay.repaint(10, 10, 330, 70));
+        getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
+                .put(KeyStroke.getKeyStroke(KeyEvent.VK_F3, 0), "perfOverlay");
+        getRootPane().getActionMap().put("perfOverlay", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                boolean show = !perfOverlay.isVisible();
+                perfOverlay.setVisible(show);
+                if (show) {
+                    refresh.start();
+                } else {
+                    refresh.stop();
+                }
+            }
+        });
+    }
+
+    // Plain 3x3 goes to the solved table, everything bigger to the search
+    private boolean isClassic() {
+        return board.rows == 3 && board.cols == 3 && board.k == 3;
+    }
+
+    // 4x4 goes to the position database once it's loaded
+    private boolean isSolved4x4() {
+        if (board.rows != 4 || board.cols != 4 || board.k != 4) {
+            return false;
+        }
+        loadDatabase();
+        return database != null;
+    }
+
+    // Maps the database file, building it first if it's missing (about half a second per core)
+    private void loadDatabase() {
+        if (database != null || databaseLoading) {
+            return;
+        }
+        databaseLoading = true;
+        new SwingWorker<TicTacToeDatabase, Void>() {
+            @Override
+            protected TicTacToeDatabase doInBackground() throws IOException {
+                return TicTacToeDatabase.openOrBuild(Paths.get(TicTacToeDatabase.DEFAULT_FILE));
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    database = get();
+                } catch (Exception e) {
+                    searchLabel.setText("Position database unavailable: " + e.getMessage());
+                }
+            }
+        }.execute();
+    }
+
+    private JButton createModernButton(String text, Color color) {
+        JButton btn = new JButton(text) {
+            @Override
+            protected void paintComponent(Graphics g) {
+                Graphics2D g2 = (Graphics2D) g;
+                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+                Color btnColor = getModel().isPressed() ? color.darker() :
+                        getModel().isRollover() ? color.brighter() : color;
+
+                g2.setColor(btnColor);
+                g2.fillRoundRect(0, 0, getWidth(), getHeight(), 25, 25);
+
+                super.paintComponent(g);
+            }
+        };
+
+        btn.setFont(new Font("Segoe UI", Font.BOLD, 16));
+        btn.setForeground(Color.WHITE);
+        btn.setContentAreaFilled(false);
+        btn.setBorderPainted(false);
+        btn.setFocusPainted(false);
+        btn.setPreferredSize(new Dimension(150, 45));
+        btn.setCursor(new Cursor(Cursor.HAND_CURSOR));
+
+        return btn;
+    }
+
+    private void cellClicked(int cell) {
+        if (online != null) {
+            if (onlineMark == sideToMove() && board.isLegal(cell)) {
+                online.move(cell); // Played when the server echoes it back
+            }
+            return;
+        }
+        if (board.isOver()) {
+            resetGame(); // The finished board stays up until the next click
+            return;
+        }
+        if (thinking || (computer != null && !analysis && !board.isXTurn())) {
+            return; // Computer's turn
+        }
+        long start = perf.tickStart();
+        if (makeMove(cell) && computer != null && !analysis) {
+            computerMove();
+        }
+        perf.tickEnd(start);
+    }
+
+    private void computerMove() {
+        if (isClassic()) {
+            makeMove(TicTacToeSolver.move(board.bits(MnkBoard.X), board.bits(MnkBoard.O), computer, aiRandom));
+            return;
+        }
+        if (isSolved4x4()) {
+            makeMove(database.move(board.bits(MnkBoard.X), board.bits(MnkBoard.O), computer, aiRandom));
+            return;
+        }
+        // Easier levels just search shallower; Perfect gets the whole time budget
+        int depth = computer == TicTacToeSolver.Difficulty.EASY ? 2
+                : computer == TicTacToeSolver.Difficulty.MEDIUM ? 4 : 64;
+        searchInBackground(depth, r -> makeMove(r.move));
+    }
+
+    // Runs the search off the EDT and hands the result back on it, unless the game was reset meanwhile
+    private void searchInBackground(int depth, Consumer<MnkSearch.Result> done) {
+        thinking = true;
+        searchLabel.setText("Thinking...");
+        MnkBoard position = board.copy();
+        int startedIn = game;
+        Cancellation cancel = searchCancel = new Cancellation();
+        if (search == null) {
+            search = new MnkSearch(20);
+        }
+        MnkSearch search = this.search;
+        new SwingWorker<MnkSearch.Result, Void>() {
+            @Override
+            protected MnkSearch.Result doInBackground() {
+                return search.search(position, THINK_MILLIS, depth, searchThreads, cancel);
+            }
+
+            @Override
+            protected void done() {
+                if (startedIn != game) {
+                    return; // Cancelled; thinking now belongs to whatever search came after it
+                }
+                thinking = false;
+                try {
+                    MnkSearch.Result r = get();
+                    searchLabel.setText(String.format("depth %d \u00b7 %,d nodes \u00b7 %,.0f knodes/s on %d threads",
+                            r.depth, r.nodes, r.nodesPerSecond() / 1000, searchThreads));
+                    done.accept(r);
+                } catch (Exception e) {
+                    searchLabel.setText("Search failed: " + e.getMessage());
+                }
+            }
+        }.execute();
+    }
+
+    // Plays cell for the side to move; true if the game goes on afterwards
+    private boolean makeMove(int cell) {
+        if (!board.isLegal(cell)) {
+            return false;
+        }
+        board.make(cell);
+        positionChanged();
+        return !board.isOver();
+    }
+
+    // Redraws after the position changed by a move, undo or redo
+    private void positionChanged() {
+        clearHighlights();
+        renderBoard();
+        if (board.isOver()) {
+            finishGame();
+        }
+        if (analysis) {
+            analyze();
+        }
+    }
+
+    // Counts the result once per game, however often it's undone and replayed; the board
+    // stays up so the game can be stepped back through
+    private void finishGame() {
+        if (!resultCounted) {
+            resultCounted = true;
+            if (board.winner() == MnkBoard.X) xWins++;
+            if (board.winner() == MnkBoard.O) oWins++;
+            updateScores();
+            stats.recordTicTacToe(board.winner(), System.currentTimeMillis() - gameStarted);
+        }
+        if (checkWin()) {
+            highlightWinningLine();
+            statusLabel.setText("Player " + (board.winner() == MnkBoard.X ? "X" : "O") + " wins!");
+        } else {
+            statusLabel.setText("It's a draw!");
+        }
+        statusLabel.setForeground(WIN);
+        searchLabel.setText(online != null ? "Click the board for a new match"
+                : "Undo to step back, or click the board for a new game");
+    }
+
+    // Steps back one move; against the computer, back to the player's turn
+    private void undo() {
+        if (online != null || thinking || !board.canUndo()) {
+            return;
+        }
+        game++;
+        board.undo();
+        if (computer != null && !analysis && !board.isXTurn() && board.canUndo()) {
+            board.undo();
+        }
+        positionChanged();
+    }
+
+    private void redo() {
+        if (online != null || thinking || !board.canRedo()) {
+            return;
+        }
+        game++;
+        board.redo();
+        if (computer != null && !analysis && !board.isXTurn() && board.canRedo()) {
+            board.redo();
+        }
+        positionChanged();
+        if (computer != null && !analysis && !board.isXTurn() && !board.isOver()) {
+            computerMove(); // Redid the player's move but the computer's reply was never made
+        }
+    }
+
+    private void bindHistoryKeys() {
+        InputMap keys = getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW);
+        ActionMap actions = getRootPane().getActionMap();
+        keys.put(KeyStroke.getKeyStroke(KeyEvent.VK_Z, InputEvent.CTRL_DOWN_MASK), "undo");
+        keys.put(KeyStroke.getKeyStroke(KeyEvent.VK_LEFT, 0), "undo");
+        keys.put(KeyStroke.getKeyStroke(KeyEvent.VK_Y, InputEvent.CTRL_DOWN_MASK), "redo");
+        keys.put(KeyStroke.getKeyStroke(KeyEvent.VK_Z, InputEvent.CTRL_DOWN_MASK | InputEvent.SHIFT_DOWN_MASK), "redo");
+        keys.put(KeyStroke.getKeyStroke(KeyEvent.VK_RIGHT, 0), "redo");
+        actions.put("undo", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                undo();
+            }
+        });
+        actions.put("redo", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                redo();
+            }
+        });
+    }
+
+    // Analysis: the computer stops replying, clicks play for whichever side is to move, and
+    // each position is evaluated as it comes up
+    private void setAnalysis(boolean on) {
+        if (online != null || thinking) {
+            return;
+        }
+        analysis = on;
+        analysisBtn.setText(on ? "Analyzing" : "Analyze");
+        game++;
+        positionChanged();
+        if (!on && computer != null && !board.isXTurn() && !board.isOver()) {
+            computerMove();
+        }
+    }
+
+    private void analyze() {
+        String line = "Move " + board.moves() + " of " + board.lineLength();
+        if (isClassic() || isSolved4x4()) {
+            int x = board.bits(MnkBoard.X), o = board.bits(MnkBoard.O);
+            if (!board.isOver()) {
+                markHint(isClassic() ? TicTacToeSolver.hint(x, o) : database.bestMove(x, o, aiRandom));
+                statusLabel.setText(isClassic() ? TicTacToeSolver.describe(x, o) : database.describe(x, o));
+            }
+            searchLabel.setText(line + " \u00b7 " + review());
+            return;
+        }
+        if (board.isOver()) {
+            searchLabel.setText(line);
+            return;
+        }
+        searchInBackground(64, r -> {
+            markHint(r.move);
+            statusLabel.setText(line + " \u00b7 best " + cellName(r.move) + " \u00b7 eval " + r.eval());
+        });
+    }
+
+    // Walks the whole game line, undone moves included, and names the moves that turned a
+    // win into a draw or worse, or a draw into a loss. Solved sizes only.
+    private String review() {
+        StringBuilder mistakes = new StringBuilder();
+        int x = 0, o = 0;
+        for (int i = 0; i < board.lineLength(); i++) {
+            boolean xMoves = (i & 1) == 0;
+            int before = outcome(x, o);
+            int bit = 1 << board.moveAt(i);
+            if (xMoves) x |= bit; else o |= bit;
+            if (-outcome(x, o) < before) {
+                mistakes.append(mistakes.length() == 0 ? "mistakes: " : ", ")
+                        .append(i + 1).append(xMoves ? " (X)" : " (O)");
+            }
+        }
+        return mistakes.length() == 0 ? "no mistakes" : mistakes.toString();
+    }
+
+    // +1 if the side to move wins with best play, 0 for a draw, -1 if it loses
+    private int outcome(int x, int o) {
+        if (isClassic()) {
+            return Integer.signum(TicTacToeSolver.evaluate(x, o));
+        }
+        int value = database.value(x, o);
+        return value == TicTacToeDatabase.WIN ? 1 : value == TicTacToeDatabase.LOSS ? -1 : 0;
+    }
+
+    private String cellName(int cell) {
+        return (char) ('a' + cell % board.cols) + Integer.toString(board.rows - cell / board.cols);
+    }
+
+    // Shown once the current event is handled, so the modal dialog isn't timed as part of the move
+    private void announce(String message) {
+        int over = game;
+        SwingUtilities.invokeLater(() -> {
+            JOptionPane.showMessageDialog(this, message);
+            if (game == over) {
+                resetGame();
+            }
+        });
+    }
+
+    private void showHint() {
+        if (board.isOver() || thinking) {
+            return;
+        }
+        clearHighlights();
+        if (isClassic()) {
+            int x = board.bits(MnkBoard.X), o = board.bits(MnkBoard.O);
+            markHint(TicTacToeSolver.hint(x, o));
+            statusLabel.setText(TicTacToeSolver.describe(x, o));
+            return;
+        }
+        if (isSolved4x4()) {
+            int x = board.bits(MnkBoard.X), o = board.bits(MnkBoard.O);
+            markHint(database.bestMove(x, o, aiRandom));
+            statusLabel.setText(database.describe(x, o));
+            return;
+        }
+        searchInBackground(64, r -> markHint(r.move));
+    }
+
+    private void markHint(int cell) {
+        boardView.setHighlight(cell, HINT);
+    }
+
+    private void clearHighlights() {
+        boardView.clearHighlights();
+    }
+
+    // The view only mirrors the board model and repaints the cells that changed
+    private void renderBoard() {
+        boardView.refresh();
+        statusLabel.setText(board.isXTurn() ? "X's Turn" : "O's Turn");
+        statusLabel.setForeground(board.isXTurn() ? X_COLOR : O_COLOR);
+    }
+
+    private int sideToMove() {
+        return board.isXTurn() ? MnkBoard.X : MnkBoard.O;
+    }
+
+    // Plays against whoever the server pairs us with, on the current board size
+    void connect(String host, int port) throws IOException {
+        computer = null;
+        analysis = false;
+        analysisBtn.setText("Analyze");
+        modeBox.setSelectedIndex(0);
+        online = TicTacToeClient.connect(host, port, SwingUtilities::invokeLater, new TicTacToeClient.Listener() {
+            @Override
+            public void started(int rows, int cols, int k, int mark) {
+                onlineMark = mark;
+                searchLabel.setText("Online \u00b7 you play " + (mark == MnkBoard.X ? "X" : "O"));
+            }
+
+            @Override
+            public void moved(int cell, int mark) {
+                makeMove(cell);
+            }
+
+            @Override
+            public void rejected(int cell, int reason) {
+                searchLabel.setText("The server rejected that move");
+            }
+
+            @Override
+            public void over(int winner, int reason) {
+                // Wins and draws already showed up through positionChanged when the last move
+                // arrived; only a walkout needs telling
+                if (reason == TicTacToeServer.ABANDONED && onlineMark != MnkBoard.NONE) {
+                    onlineMark = MnkBoard.NONE;
+                    announce("Your opponent left");
+                }
+            }
+
+            @Override
+            public void disconnected(IOException cause) {
+                online = null;
+                onlineMark = MnkBoard.NONE;
+                modeBox.setEnabled(true);
+                sizeBox.setEnabled(true);
+                resetGame();
+                searchLabel.setText("Disconnected: " + cause.getMessage());
+            }
+        });
+        modeBox.setEnabled(false);
+        sizeBox.setEnabled(false);
+        resetGame();
+    }
+
+    private boolean checkWin() {
+        return board.winner() != MnkBoard.NONE;
+    }
+
+    private void highlightWinningLine() {
+        for (int i : board.winningCells()) {
+            boardView.setHighlight(i, WIN);
+        }
+    }
+
+    private void updateScores() {
+        xScoreCard.setScore(xWins);
+        oScoreCard.setScore(oWins);
+    }
+
+    // Drops the running search so the next one can start right away; it may still finish in
+    // the background, but only on its own board copy and cancel flag
+    private void cancelSearch() {
+        if (thinking) {
+            searchCancel.cancel();
+            thinking = false;
+        }
+    }
+
+    private void resetGame() {
+        cancelSearch();
+        game++;
+        gameStarted = System.currentTimeMillis();
+        resultCounted = false;
+        board.reset();
+        searchLabel.setText(" ");
+        clearHighlights();
+        renderBoard();
+        if (analysis) {
+            analyze();
+        }
+        if (online != null) {
+            onlineMark = MnkBoard.NONE; // Also resigns a match in progress
+            online.join(board.rows, board.cols, board.k);
+            searchLabel.setText("Online \u00b7 waiting for an opponent...");
+        }
+    }
+
+    // Player letter over a win count, painted directly; a score change repaints just the card
+    private final class ScoreCard extends JComponent {
+        private final String player;
+        private final Color color;
+        private final Font playerFont = new Font("Segoe UI", Font.BOLD, 26);
+        private final Font scoreFont = new Font("Segoe UI", Font.PLAIN, 20);
+        private int score = -1;
+        private String scoreText = "";
+
+        ScoreCard(String player, Color color) {
+            this.player = player;
+            this.color = color;
+            setOpaque(true);
+            setPreferredSize(new Dimension(100, 80));
+        }
+
+        void setScore(int score) {
+            if (score != this.score) {
+                this.score = score;
+                scoreText = Integer.toString(score);
+                repaint();
+            }
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            Graphics2D g2 = (Graphics2D) g;
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            int w = getWidth(), h = getHeight();
+            g2.setColor(CARD);
+            g2.fillRect(0, 0, w, h);
+            g2.setColor(color);
+            g2.fillRect(0, 0, w, 2);
+            g2.fillRect(0, h - 2, w, 2);
+            g2.fillRect(0, 0, 2, h);
+            g2.fillRect(w - 2, 0, 2, h);
+
+            g2.setFont(playerFont);
+            FontMetrics fm = g2.getFontMetrics();
+            g2.drawString(player, (w - fm.stringWidth(player)) / 2, h / 2 - 4);
+            g2.setFont(scoreFont);
+            fm = g2.getFontMetrics();
+            g2.drawString(scoreText, (w - fm.stringWidth(scoreText)) / 2, h / 2 + fm.getAscent());
+        }
+    }
+
+    // java org.example.TicTacToe [rows] [cols] [k] [--connect=host:port]
+    public static void main(String[] args) {
+        String connect = null;
+        List<Integer> numbers = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--connect=")) {
+                connect = arg.substring("--connect=".length());
+            } else {
+                numbers.add(Integer.parseInt(arg));
+            }
+        }
+        int rows = numbers.size() > 0 ? numbers.get(0) : 3;
+        int cols = numbers.size() > 1 ? numbers.get(1) : rows;
+        int k = numbers.size() > 2 ? numbers.get(2) : Math.min(Math.min(rows, cols), 5);
+        if (!TicTacToeServer.validSize(rows, cols, k)) {
+            System.out.println("usage: TicTacToe [rows] [cols] [k]   (sides " + TicTacToeServer.MIN_SIDE + ".."
+                    + TicTacToeServer.MAX_SIDE + ", 3 <= k <= the longer side)");
+            return;
+        }
+        String server = connect;
+        SwingUtilities.invokeLater(() -> {
+            try {
+                UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+            TicTacToe game = new TicTacToe(rows, cols, k);
+            if (server != null) {
+                int colon = server.lastIndexOf(':');
+                String host = colon < 0 ? server : server.substring(0, colon);
+                int port = colon < 0 ? TicTacToeServer.DEFAULT_PORT : Integer.parseInt(server.substring(colon + 1));
+                try {
+                    game.connect(host, port);
+                } catch (IOException e) {
+                    JOptionPane.showMessageDialog(game, "Could not connect to " + server + ": " + e.getMessage());
+                }
+            }
+        });
+    }
+}
\ No newline at end of file
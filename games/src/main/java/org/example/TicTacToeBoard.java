@@ -0,0 +1,94 @@
+package org.example;
+
+// UI-independent 3x3 board. Each player is a 9-bit mask, cell i being bit i (row-major).
+// Win and draw checks are single table lookups.
+class TicTacToeBoard {
+    static final int NONE = 0, X = 1, O = 2;
+    static final int FULL = 0x1FF;
+
+    static final int[] WIN_MASKS = {
+            0b000_000_111, 0b000_111_000, 0b111_000_000, // rows
+            0b001_001_001, 0b010_010_010, 0b100_100_100, // columns
+            0b100_010_001, 0b001_010_100 // diagonals
+    };
+
+    // For every 9-bit mask, the first complete line it contains, or 0
+    private static final short[] LINE_OF = new short[1 << 9];
+
+    static {
+        for (int bits = 0; bits < LINE_OF.length; bits++) {
+            for (int line : WIN_MASKS) {
+                if ((bits & line) == line) {
+                    LINE_OF[bits] = (short) line;
+                    break;
+                }
+            }
+        }
+    }
+
+    private int x, o;
+    private boolean xTurn = true;
+
+    static boolean isWin(int bits) {
+        return LINE_OF[bits] != 0;
+    }
+
+    static int winningLine(int bits) {
+        return LINE_OF[bits];
+    }
+
+    // Plays the side to move on cell; false if the cell is taken or the game is already over
+    boolean play(int cell) {
+        int bit = 1 << cell;
+        if (((x | o) & bit) != 0 || isOver()) {
+            return false;
+        }
+        if (xTurn) {
+            x |= bit;
+        } else {
+            o |= bit;
+        }
+        xTurn = !xTurn;
+        return true;
+    }
+
+    void reset() {
+        x = 0;
+        o = 0;
+        xTurn = true;
+    }
+
+    int winner() {
+        if (isWin(x)) {
+            return X;
+        }
+        return isWin(o) ? O : NONE;
+    }
+
+    // Mask of the completed line, or 0 while nobody has won
+    int winningLine() {
+        int line = LINE_OF[x];
+        return line != 0 ? line : LINE_OF[o];
+    }
+
+    boolean isDraw() {
+        return (x | o) == FULL && winner() == NONE;
+    }
+
+    boolean isOver() {
+        return winner() != NONE || (x | o) == FULL;
+    }
+
+    int get(int cell) {
+        int bit = 1 << cell;
+        if ((x & bit) != 0) {
+            return X;
+        }
+        return (o & bit) != 0 ? O : NONE;
+    }
+
+    boolean isXTurn() { return xTurn; }
+    int moves() { return Integer.bitCount(x | o); }
+    int xBits() { return x; }
+    int oBits() { return o; }
+}
@@ -0,0 +1,109 @@
+package org.example;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.Executor;
+
+// Blocking client for TicTacToeServer, used by the Swing game. Sends go straight out from
+// the caller's thread; a reader thread decodes the server's messages and hands them to the
+// listener on the given executor (SwingUtilities::invokeLater for the UI).
+class TicTacToeClient {
+    interface Listener {
+        void started(int rows, int cols, int k, int mark);
+        void moved(int cell, int mark);
+        void rejected(int cell, int reason);
+        void over(int winner, int reason);
+        void disconnected(IOException cause);
+    }
+
+    private final SocketChannel channel;
+    private final ByteBuffer out = ByteBuffer.allocate(8);
+
+    private TicTacToeClient(SocketChannel channel) {
+        this.channel = channel;
+    }
+
+    static TicTacToeClient connect(String host, int port, Executor callbacks, Listener listener) throws IOException {
+        SocketChannel channel = SocketChannel.open(new InetSocketAddress(host, port));
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        TicTacToeClient client = new TicTacToeClient(channel);
+        Thread reader = new Thread(() -> client.readLoop(callbacks, listener), "tictactoe-client");
+        reader.setDaemon(true);
+        reader.start();
+        return client;
+    }
+
+    void join(int rows, int cols, int k) {
+        send(TicTacToeServer.JOIN, (byte) rows, (byte) cols, (byte) k);
+    }
+
+    void move(int cell) {
+        send(TicTacToeServer.MOVE, (byte) (cell >> 8), (byte) cell);
+    }
+
+    void leave() {
+        send(TicTacToeServer.LEAVE);
+    }
+
+    // A failed send closes the connection; the reader then reports it to the listener
+    private synchronized void send(byte... message) {
+        out.clear();
+        out.put(message).flip();
+        try {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        } catch (IOException e) {
+            close();
+        }
+    }
+
+    void close() {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void readLoop(Executor callbacks, Listener listener) {
+        try (DataInputStream in = new DataInputStream(Channels.newInputStream(channel))) {
+            while (true) {
+                byte type = in.readByte();
+                switch (type) {
+                    case TicTacToeServer.START: {
+                        int rows = in.readByte(), cols = in.readByte(), k = in.readByte(), mark = in.readByte();
+                        callbacks.execute(() -> listener.started(rows, cols, k, mark));
+                        break;
+                    }
+                    case TicTacToeServer.MOVED: {
+                        int cell = in.readShort(), mark = in.readByte();
+                        callbacks.execute(() -> listener.moved(cell, mark));
+                        break;
+                    }
+                    case TicTacToeServer.REJECT: {
+                        int cell = in.readShort(), reason = in.readByte();
+                        callbacks.execute(() -> listener.rejected(cell, reason));
+                        break;
+                    }
+                    case TicTacToeServer.OVER: {
+                        int winner = in.readByte(), reason = in.readByte();
+                        callbacks.execute(() -> listener.over(winner, reason));
+                        break;
+                    }
+                    default:
+                        throw new IOException("Unknown message type " + type);
+                }
+            }
+        } catch (IOException e) {
+            IOException cause = e instanceof EOFException ? new IOException("Server closed the connection")
+                    : e.getMessage() == null ? new IOException("Connection closed", e) : e;
+            callbacks.execute(() -> listener.disconnected(cause));
+        }
+    }
+}
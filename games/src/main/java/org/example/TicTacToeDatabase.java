@@ -0,0 +1,345 @@
+package org.example;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+// 4x4 TicTacToe, four in a row, solved completely by retrograde analysis and kept on disk.
+//
+// A position's index is its base-3 number: cell i contributes 3^i times 0 (empty), 1 (X) or
+// 2 (O). That ranks all 3^16 boards densely, so a lookup is arithmetic plus one load, and a
+// move just adds 3^cell or 2 * 3^cell. Each position takes 2 bits (UNKNOWN for unreachable
+// boards, else WIN / DRAW / LOSS for the side to move), 10.3 MB in all.
+//
+// The build runs level by level from the full board back to the empty one: every position
+// with n stones only looks at its children with n + 1, which are finished by then. Within a
+// level the occupied-cell masks are spread across cores.
+//
+// The file is memory-mapped read-only, so opening costs nothing and every process using it
+// shares the same page cache pages.
+class TicTacToeDatabase {
+    static final int SIDE = 4, CELLS = SIDE * SIDE;
+    static final int UNKNOWN = 0, WIN = 1, DRAW = 2, LOSS = 3; // For the side to move
+    static final int POSITIONS = 43_046_721; // 3^16
+    static final String DEFAULT_FILE = "tictactoe4x4.db";
+
+    private static final int MAGIC = 0x54344442; // "T4DB"
+    private static final int VERSION = 1;
+    private static final int HEADER = 16; // magic, version, positions, reserved
+    private static final int FULL = (1 << CELLS) - 1;
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    static final int[] POW3 = new int[CELLS];
+    private static final int[] BASE3 = new int[1 << CELLS]; // Sum of 3^i over the set bits
+    private static final int[] LINES;
+    private static final boolean[] HAS_LINE = new boolean[1 << CELLS];
+
+    static {
+        for (int i = 0, p = 1; i < CELLS; i++, p *= 3) {
+            POW3[i] = p;
+        }
+        for (int mask = 1; mask < BASE3.length; mask++) {
+            int low = Integer.numberOfTrailingZeros(mask);
+            BASE3[mask] = BASE3[mask & (mask - 1)] + POW3[low];
+        }
+        int[] lines = new int[2 * SIDE + 2];
+        int n = 0;
+        for (int r = 0; r < SIDE; r++) {
+            lines[n++] = 0xF << (r * SIDE);
+        }
+        for (int c = 0; c < SIDE; c++) {
+            lines[n++] = 0x1111 << c;
+        }
+        lines[n++] = 0x8421; // Main diagonal
+        lines[n] = 0x1248; // Anti-diagonal
+        LINES = lines;
+        for (int mask = 0; mask < HAS_LINE.length; mask++) {
+            for (int line : LINES) {
+                if ((mask & line) == line) {
+                    HAS_LINE[mask] = true;
+                    break;
+                }
+            }
+        }
+    }
+
+    private final ByteBuffer data; // 4 positions per byte, low bits first
+
+    private TicTacToeDatabase(ByteBuffer data) {
+        this.data = data;
+    }
+
+    static int index(int x, int o) {
+        return BASE3[x] + 2 * BASE3[o];
+    }
+
+    static boolean hasLine(int stones) {
+        return HAS_LINE[stones];
+    }
+
+    // WIN, DRAW or LOSS for the side to move; UNKNOWN for positions no game reaches
+    int value(int x, int o) {
+        int i = index(x, o);
+        return (data.get(HEADER + (i >> 2)) >> ((i & 3) * 2)) & 3;
+    }
+
+    // Outcome of playing cell, from the point of view of the player making the move
+    int moveValue(int x, int o, int cell) {
+        boolean xToMove = Integer.bitCount(x) == Integer.bitCount(o);
+        int bit = 1 << cell;
+        int child = xToMove ? value(x | bit, o) : value(x, o | bit);
+        return child == LOSS ? WIN : child == WIN ? LOSS : child;
+    }
+
+    // A move with the best outcome, ties broken at random, preferring a move that wins on the
+    // spot (2 bits can't say how far away a win is); -1 if the game is over
+    int bestMove(int x, int o, Random random) {
+        if (isOver(x, o)) {
+            return -1;
+        }
+        boolean xToMove = Integer.bitCount(x) == Integer.bitCount(o);
+        int mine = xToMove ? x : o;
+        int best = Integer.MAX_VALUE, choice = -1, ties = 0;
+        for (int free = ~(x | o) & FULL; free != 0; free &= free - 1) {
+            int cell = Integer.numberOfTrailingZeros(free);
+            if (hasLine(mine | 1 << cell)) {
+                return cell;
+            }
+            int v = rank(moveValue(x, o, cell));
+            if (v < best) {
+                best = v;
+                choice = cell;
+                ties = 1;
+            } else if (v == best && random.nextInt(++ties) == 0) {
+                choice = cell;
+            }
+        }
+        return choice;
+    }
+
+    // With the difficulty's mistake rate, picks among the moves worse than the best one
+    int move(int x, int o, TicTacToeSolver.Difficulty difficulty, Random random) {
+        int best = bestMove(x, o, random);
+        if (best < 0 || random.nextDouble() >= difficulty.mistakeRate) {
+            return best;
+        }
+        int bestRank = rank(moveValue(x, o, best));
+        int choice = best, worse = 0;
+        for (int free = ~(x | o) & FULL; free != 0; free &= free - 1) {
+            int cell = Integer.numberOfTrailingZeros(free);
+            if (rank(moveValue(x, o, cell)) > bestRank && random.nextInt(++worse) == 0) {
+                choice = cell;
+            }
+        }
+        return choice;
+    }
+
+    private static int rank(int value) {
+        return value == WIN ? 0 : value == DRAW ? 1 : 2;
+    }
+
+    static boolean isOver(int x, int o) {
+        return hasLine(x) || hasLine(o) || (x | o) == FULL;
+    }
+
+    // e.g. "X to move wins with best play"
+    String describe(int x, int o) {
+        if (isOver(x, o)) {
+            return hasLine(x) ? "X has won" : hasLine(o) ? "O has won" : "Draw";
+        }
+        String side = Integer.bitCount(x) == Integer.bitCount(o) ? "X" : "O";
+        switch (value(x, o)) {
+            case WIN: return side + " to move wins with best play";
+            case DRAW: return side + " to move draws with best play";
+            case LOSS: return side + " to move loses with best play";
+            default: return "Not a reachable position";
+        }
+    }
+
+    // Retrograde analysis of every position; returns the packed values, 16 per int
+    static int[] build(int threads) {
+        int[] packed = new int[(POSITIONS + 15) / 16];
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            for (int stones = CELLS; stones >= 0; stones--) {
+                int level = stones;
+                // Each task solves every position with this occupied mask
+                pool.submit(() -> IntStream.range(0, 1 << CELLS).parallel()
+                        .filter(occupied -> Integer.bitCount(occupied) == level)
+                        .forEach(occupied -> solveMask(packed, occupied, level))).join();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return packed;
+    }
+
+    private static void solveMask(int[] packed, int occupied, int stones) {
+        int xStones = (stones + 1) / 2; // X moves first
+        boolean xToMove = stones % 2 == 0;
+        // Every subset of occupied with the right number of X stones
+        for (int x = occupied; ; x = (x - 1) & occupied) {
+            if (Integer.bitCount(x) == xStones) {
+                int o = occupied & ~x;
+                int value = solve(packed, x, o, xToMove);
+                if (value != UNKNOWN) {
+                    int i = index(x, o);
+                    INTS.getAndBitwiseOr(packed, i >> 4, value << ((i & 15) * 2));
+                }
+            }
+            if (x == 0) {
+                break;
+            }
+        }
+    }
+
+    private static int solve(int[] packed, int x, int o, boolean xToMove) {
+        int mover = xToMove ? x : o, lastMover = xToMove ? o : x;
+        if (hasLine(mover)) {
+            return UNKNOWN; // The game ended before this side got to move
+        }
+        if (hasLine(lastMover)) {
+            return LOSS;
+        }
+        int free = ~(x | o) & FULL;
+        if (free == 0) {
+            return DRAW;
+        }
+        int index = index(x, o);
+        int step = xToMove ? 1 : 2;
+        boolean draw = false;
+        for (; free != 0; free &= free - 1) {
+            int child = index + step * POW3[Integer.numberOfTrailingZeros(free)];
+            int v = (packed[child >> 4] >>> ((child & 15) * 2)) & 3;
+            if (v == LOSS) {
+                return WIN;
+            }
+            draw |= v == DRAW;
+        }
+        return draw ? DRAW : LOSS;
+    }
+
+    // Writes to a temp file and renames it into place, so readers never map a half-written file
+    static void write(Path file, int[] packed) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        ByteBuffer header = ByteBuffer.allocate(HEADER);
+        header.putInt(MAGIC).putInt(VERSION).putInt(POSITIONS).putInt(0).flip();
+        // Little-endian ints put position i in byte i / 4, which is how value() reads it
+        ByteBuffer body = ByteBuffer.allocate(packed.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+        body.asIntBuffer().put(packed);
+        body.limit((POSITIONS + 3) / 4);
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer[] buffers = {header, body};
+            while (header.hasRemaining() || body.hasRemaining()) {
+                channel.write(buffers);
+            }
+            channel.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static TicTacToeDatabase open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long expected = HEADER + (POSITIONS + 3) / 4;
+            if (channel.size() != expected) {
+                throw new IOException(file + " is not a 4x4 database (" + channel.size() + " bytes)");
+            }
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, expected);
+            if (data.getInt(0) != MAGIC || data.getInt(4) != VERSION || data.getInt(8) != POSITIONS) {
+                throw new IOException(file + " is not a 4x4 database");
+            }
+            return new TicTacToeDatabase(data);
+        }
+    }
+
+    // Opens file, building it first if it's missing or unreadable
+    static TicTacToeDatabase openOrBuild(Path file) throws IOException {
+        if (Files.exists(file)) {
+            try {
+                return open(file);
+            } catch (IOException e) {
+                System.err.println("Rebuilding " + file + ": " + e.getMessage());
+            }
+        }
+        Path dir = file.toAbsolutePath().getParent();
+        if (dir != null) {
+            Files.createDirectories(dir);
+        }
+        write(file, build(Runtime.getRuntime().availableProcessors()));
+        return open(file);
+    }
+
+    // "X..O............" style: 16 cells row by row, X / O / anything else for empty
+    static int[] parse(String position) {
+        if (position.length() != CELLS) {
+            throw new IllegalArgumentException("Expected " + CELLS + " cells, got " + position.length());
+        }
+        int x = 0, o = 0;
+        for (int i = 0; i < CELLS; i++) {
+            char c = Character.toUpperCase(position.charAt(i));
+            if (c == 'X') {
+                x |= 1 << i;
+            } else if (c == 'O') {
+                o |= 1 << i;
+            }
+        }
+        return new int[]{x, o};
+    }
+
+    // The board with each free cell marked W, D or L: the outcome of playing there
+    String analyze(int x, int o) {
+        StringBuilder sb = new StringBuilder(describe(x, o)).append('\n');
+        for (int r = 0; r < SIDE; r++) {
+            for (int c = 0; c < SIDE; c++) {
+                int cell = r * SIDE + c, bit = 1 << cell;
+                char mark = (x & bit) != 0 ? 'X' : (o & bit) != 0 ? 'O'
+                        : isOver(x, o) ? '.' : "?WDL".charAt(moveValue(x, o, cell));
+                sb.append(' ').append(mark);
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    // java org.example.TicTacToeDatabase build [file] [threads]
+    // java org.example.TicTacToeDatabase analyze <16 cells, e.g. X....O..........> [file]
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 1 && args[0].equals("build")) {
+            Path file = Paths.get(args.length > 1 ? args[1] : DEFAULT_FILE);
+            int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+            long start = System.nanoTime();
+            int[] packed = build(threads);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            write(file, packed);
+            long[] counts = new long[4];
+            for (int i = 0; i < POSITIONS; i++) {
+                counts[(packed[i >> 4] >>> ((i & 15) * 2)) & 3]++;
+            }
+            System.out.printf(Locale.ROOT, "Solved in %.1f s on %d threads: %,d positions "
+                            + "(%,d wins, %,d draws, %,d losses for the side to move), %,d bytes%n",
+                    seconds, threads, counts[WIN] + counts[DRAW] + counts[LOSS], counts[WIN], counts[DRAW],
+                    counts[LOSS], Files.size(file));
+            System.out.println("Empty board: " + open(file).describe(0, 0));
+        } else if (args.length >= 2 && args[0].equals("analyze")) {
+            TicTacToeDatabase db = openOrBuild(Paths.get(args.length > 2 ? args[2] : DEFAULT_FILE));
+            int[] position = parse(args[1]);
+            System.out.print(db.analyze(position[0], position[1]));
+        } else {
+            System.out.println("usage: TicTacToeDatabase build [file] [threads] | analyze <position> [file]");
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package org.example;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+// Load generator for TicTacToeServer: many bot connections on one selector thread, each
+// queueing for a match and playing random legal moves as fast as the server answers, then
+// queueing again. Latency is from sending a MOVE to the server's MOVED echo of it.
+//
+// Without --connect it starts a server in-process and plays it over loopback.
+class TicTacToeLoad {
+    private final Selector selector = Selector.open();
+    private final SplittableRandom random = new SplittableRandom(42);
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final ArrayList<Bot> dirty = new ArrayList<>();
+    private final int rows, cols, k;
+    private final MnkBoard emptyBoard;
+    private boolean measuring;
+    private long moves, games, rejects;
+
+    private final class Bot {
+        final SocketChannel channel;
+        final SelectionKey key;
+        final ByteBuffer in = ByteBuffer.allocate(512);
+        final ByteBuffer out = ByteBuffer.allocate(512);
+        final MnkBoard board = emptyBoard.copy();
+        boolean queuedForFlush;
+        int mark;
+        long sentAt; // When the outstanding move went out, 0 for none
+
+        Bot(SocketChannel channel) throws IOException {
+            this.channel = channel;
+            this.key = channel.register(selector, SelectionKey.OP_READ, this);
+        }
+    }
+
+    TicTacToeLoad(int rows, int cols, int k) throws IOException {
+        this.rows = rows;
+        this.cols = cols;
+        this.k = k;
+        this.emptyBoard = new MnkBoard(rows, cols, k);
+    }
+
+    void run(InetSocketAddress server, int connections, long warmupMillis, long millis) throws IOException {
+        for (int i = 0; i < connections; i++) {
+            SocketChannel channel = SocketChannel.open(server);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.configureBlocking(false);
+            join(new Bot(channel));
+        }
+        flushDirty();
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmupMillis * 1_000_000;
+        long end = measureFrom + millis * 1_000_000;
+        for (long now = start; now < end; now = System.nanoTime()) {
+            if (!measuring && now >= measureFrom) {
+                measuring = true;
+            }
+            selector.select(100);
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                Bot bot = (Bot) key.attachment();
+                if (key.isValid() && key.isWritable()) {
+                    flush(bot);
+                }
+                if (key.isValid() && key.isReadable()) {
+                    read(bot);
+                }
+            }
+            flushDirty();
+        }
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+    }
+
+    private void read(Bot bot) throws IOException {
+        if (bot.channel.read(bot.in) < 0) {
+            throw new IOException("Server closed a connection");
+        }
+        ByteBuffer in = bot.in;
+        in.flip();
+        while (in.hasRemaining()) {
+            byte type = in.get(in.position());
+            int size = TicTacToeServer.size(type);
+            if (size < 0) {
+                throw new IOException("Unknown message type " + type);
+            }
+            if (in.remaining() < size) {
+                break;
+            }
+            in.get();
+            switch (type) {
+                case TicTacToeServer.START:
+                    in.get();
+                    in.get();
+                    in.get();
+                    bot.mark = in.get();
+                    bot.board.reset();
+                    if (bot.mark == MnkBoard.X) {
+                        play(bot);
+                    }
+                    break;
+                case TicTacToeServer.MOVED: {
+                    int cell = in.getShort(), mark = in.get();
+                    bot.board.make(cell);
+                    if (mark == bot.mark) {
+                        if (measuring) {
+                            latency.record(System.nanoTime() - bot.sentAt);
+                            moves++;
+                        }
+                        bot.sentAt = 0;
+                    } else if (!bot.board.isOver()) {
+                        play(bot);
+                    }
+                    break;
+                }
+                case TicTacToeServer.REJECT:
+                    in.getShort();
+                    in.get();
+                    rejects++;
+                    break;
+                case TicTacToeServer.OVER:
+                    in.get();
+                    in.get();
+                    if (measuring && bot.mark == MnkBoard.X) {
+                        games++; // Count each game once
+                    }
+                    join(bot);
+                    break;
+                default:
+                    throw new IOException("Unexpected message type " + type);
+            }
+        }
+        in.compact();
+    }
+
+    private void play(Bot bot) {
+        int cell;
+        do {
+            cell = random.nextInt(bot.board.size());
+        } while (!bot.board.isLegal(cell));
+        bot.sentAt = System.nanoTime();
+        send(bot, TicTacToeServer.MOVE, (byte) (cell >> 8), (byte) cell);
+    }
+
+    private void join(Bot bot) {
+        send(bot, TicTacToeServer.JOIN, (byte) rows, (byte) cols, (byte) k);
+    }
+
+    private void send(Bot bot, byte... message) {
+        bot.out.put(message);
+        if (!bot.queuedForFlush) {
+            bot.queuedForFlush = true;
+            dirty.add(bot);
+        }
+    }
+
+    private void flushDirty() throws IOException {
+        for (Bot bot : dirty) {
+            bot.queuedForFlush = false;
+            flush(bot);
+        }
+        dirty.clear();
+    }
+
+    private void flush(Bot bot) throws IOException {
+        bot.out.flip();
+        bot.channel.write(bot.out);
+        boolean more = bot.out.hasRemaining();
+        bot.out.compact();
+        bot.key.interestOps(more ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+    }
+
+    // java org.example.TicTacToeLoad [--connections=2000] [--seconds=10] [--warmup=2] [--size=3x3x3]
+    //                                [--connect=host:port]
+    public static void main(String[] args) throws IOException {
+        int connections = 2000;
+        long seconds = 10, warmup = 2;
+        int rows = 3, cols = 3, k = 3;
+        String connect = null;
+        for (String arg : args) {
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (arg.startsWith("--connections=")) {
+                connections = Integer.parseInt(value);
+            } else if (arg.startsWith("--seconds=")) {
+                seconds = Long.parseLong(value);
+            } else if (arg.startsWith("--warmup=")) {
+                warmup = Long.parseLong(value);
+            } else if (arg.startsWith("--size=")) {
+                String[] size = value.split("x");
+                rows = Integer.parseInt(size[0]);
+                cols = Integer.parseInt(size[1]);
+                k = Integer.parseInt(size[2]);
+            } else if (arg.startsWith("--connect=")) {
+                connect = value;
+            }
+        }
+        if (!TicTacToeServer.validSize(rows, cols, k)) {
+            System.out.println("Unsupported board size " + rows + "x" + cols + "x" + k);
+            return;
+        }
+
+        TicTacToeServer embedded = null;
+        InetSocketAddress address;
+        if (connect == null) {
+            embedded = new TicTacToeServer(new InetSocketAddress("127.0.0.1", 0));
+            Thread thread = new Thread(embedded, "tictactoe-server");
+            thread.setDaemon(true);
+            thread.start();
+            address = new InetSocketAddress("127.0.0.1", embedded.port());
+        } else {
+            int colon = connect.lastIndexOf(':');
+            address = new InetSocketAddress(connect.substring(0, colon), Integer.parseInt(connect.substring(colon + 1)));
+        }
+
+        System.out.printf("%d connections (%d matches) of %dx%d/%d against %s for %d s after %d s warmup%n",
+                connections, connections / 2, rows, cols, k, connect == null ? "an in-process server" : connect,
+                seconds, warmup);
+        TicTacToeLoad load = new TicTacToeLoad(rows, cols, k);
+        load.run(address, connections, warmup * 1000, seconds * 1000);
+
+        System.out.printf(Locale.ROOT, "%.0f moves/s, %.0f games/s, %d rejected%n",
+                load.moves / (double) seconds, load.games / (double) seconds, load.rejects);
+        System.out.printf(Locale.ROOT, "move latency  p50 %.1f  p99 %.1f  p99.9 %.1f  max %.1f us%n",
+                load.latency.percentile(0.5) / 1e3, load.latency.percentile(0.99) / 1e3,
+                load.latency.percentile(0.999) / 1e3, load.latency.max() / 1e3);
+        if (embedded != null) {
+            System.out.println("server: " + embedded.status());
+            embedded.close();
+        }
+    }
+}
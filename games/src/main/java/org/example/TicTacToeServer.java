@@ -0,0 +1,379 @@
+package org.example;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+// TicTacToe (any m,n,k size) as a network service. One selector thread owns every connection,
+// the matchmaking queue and every match, so nothing is locked; a move is a few microseconds of
+// work, which leaves one thread enough for tens of thousands of concurrent matches. The board
+// model is the same MnkBoard the Swing game uses, and every move is checked against it.
+//
+// Wire protocol: one type byte followed by a fixed-size payload, so no length prefixes.
+//   client -> server  JOIN rows cols k | MOVE cell(short) | LEAVE
+//   server -> client  START rows cols k mark | MOVED cell(short) mark | REJECT cell(short) reason
+//                     | OVER winner reason
+// JOIN queues for an opponent wanting the same size (and resigns a match in progress); the
+// player who waited longer plays X. MOVED goes to both players, including the mover, and is
+// the only way a move reaches the board on either side. OVER follows the final MOVED, or is
+// sent alone when the opponent leaves.
+class TicTacToeServer implements Runnable {
+    static final int DEFAULT_PORT = 7777;
+
+    static final byte JOIN = 1, MOVE = 2, LEAVE = 3;
+    static final byte START = 17, MOVED = 18, REJECT = 19, OVER = 20;
+    static final byte ILLEGAL = 1, NOT_YOUR_TURN = 2, NO_MATCH = 3; // REJECT reasons
+    static final byte FINISHED = 0, ABANDONED = 1; // OVER reasons
+    static final int MIN_SIDE = 3, MAX_SIDE = 19;
+    private static final int MAX_BACKLOG = 64 * 1024; // Unsent bytes before a client counts as stuck
+
+    // Bytes in a message of the given type, type byte included; -1 for an unknown type
+    static int size(byte type) {
+        switch (type) {
+            case JOIN: return 4;
+            case MOVE: return 3;
+            case LEAVE: return 1;
+            case START: return 5;
+            case MOVED: return 4;
+            case REJECT: return 4;
+            case OVER: return 3;
+            default: return -1;
+        }
+    }
+
+    static boolean validSize(int rows, int cols, int k) {
+        return rows >= MIN_SIDE && rows <= MAX_SIDE && cols >= MIN_SIDE && cols <= MAX_SIDE
+                && k >= 3 && k <= Math.max(rows, cols);
+    }
+
+    private final ServerSocketChannel server;
+    private final Selector selector;
+    private final Map<Integer, Connection> waiting = new HashMap<>(); // One queued player per board size
+    private final Map<Integer, MnkBoard> emptyBoards = new HashMap<>(); // Copies share the geometry tables
+    private final ArrayList<Connection> dirty = new ArrayList<>();
+    private volatile boolean running = true;
+
+    // Written by the selector thread only; read by the reporter
+    private volatile int connections, waitingPlayers, liveMatches;
+    private volatile long moves, rejects, gamesFinished;
+
+    private final class Connection {
+        final SocketChannel channel;
+        final SelectionKey key;
+        final ByteBuffer in = ByteBuffer.allocate(512);
+        ByteBuffer out = ByteBuffer.allocate(256);
+        boolean queuedForFlush;
+        Match match;
+        int mark;
+        int waitingFor = -1; // Size key while in the queue
+
+        Connection(SocketChannel channel) throws IOException {
+            this.channel = channel;
+            this.key = channel.register(selector, SelectionKey.OP_READ, this);
+        }
+    }
+
+    private static final class Match {
+        final MnkBoard board;
+        final Connection x, o;
+
+        Match(MnkBoard board, Connection x, Connection o) {
+            this.board = board;
+            this.x = x;
+            this.o = o;
+        }
+
+        Connection opponent(Connection c) { return c == x ? o : x; }
+    }
+
+    TicTacToeServer(InetSocketAddress address) throws IOException {
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(address, 4096);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    int port() {
+        return server.socket().getLocalPort();
+    }
+
+    void close() {
+        running = false;
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Connection c = (Connection) key.attachment();
+                    if (key.isWritable()) {
+                        flush(c);
+                    }
+                    if (key.isValid() && key.isReadable()) {
+                        read(c);
+                    }
+                }
+                // Everything sent while handling this round goes out in one write per connection
+                for (Connection c : dirty) {
+                    c.queuedForFlush = false;
+                    flush(c);
+                }
+                dirty.clear();
+            }
+        } catch (IOException e) {
+            System.err.println("TicTacToe server stopped: " + e);
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                closeQuietly(key);
+            }
+            closeQuietly(selector);
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = server.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            new Connection(channel);
+            connections++;
+        }
+    }
+
+    private void read(Connection c) {
+        int n;
+        try {
+            n = c.channel.read(c.in);
+        } catch (IOException e) {
+            n = -1;
+        }
+        if (n < 0) {
+            drop(c);
+            return;
+        }
+        ByteBuffer in = c.in;
+        in.flip();
+        while (in.hasRemaining()) {
+            int size = size(in.get(in.position()));
+            if (size < 0) {
+                drop(c); // Not speaking our protocol
+                return;
+            }
+            if (in.remaining() < size) {
+                break;
+            }
+            handle(c, in);
+            if (!c.key.isValid()) {
+                return;
+            }
+        }
+        in.compact();
+    }
+
+    private void handle(Connection c, ByteBuffer in) {
+        byte type = in.get();
+        switch (type) {
+            case JOIN:
+                join(c, in.get(), in.get(), in.get());
+                break;
+            case MOVE:
+                move(c, in.getShort());
+                break;
+            case LEAVE:
+                leave(c);
+                break;
+            default:
+                drop(c);
+        }
+    }
+
+    private void join(Connection c, int rows, int cols, int k) {
+        leave(c);
+        if (!validSize(rows, cols, k)) {
+            drop(c);
+            return;
+        }
+        int sizeKey = rows << 16 | cols << 8 | k;
+        Connection x = waiting.remove(sizeKey);
+        if (x == null) {
+            waiting.put(sizeKey, c);
+            c.waitingFor = sizeKey;
+            waitingPlayers++;
+            return;
+        }
+        x.waitingFor = -1;
+        waitingPlayers--;
+        MnkBoard board = emptyBoards.computeIfAbsent(sizeKey, s -> new MnkBoard(rows, cols, k)).copy();
+        Match match = new Match(board, x, c);
+        x.match = match;
+        x.mark = MnkBoard.X;
+        c.match = match;
+        c.mark = MnkBoard.O;
+        liveMatches++;
+        send(x, START, (byte) rows, (byte) cols, (byte) k, (byte) MnkBoard.X);
+        if (c.match == match) { // A send can drop a backlogged player, which ends the match
+            send(c, START, (byte) rows, (byte) cols, (byte) k, (byte) MnkBoard.O);
+        }
+    }
+
+    private void move(Connection c, int cell) {
+        Match match = c.match;
+        byte reason = match == null ? NO_MATCH
+                : (match.board.isXTurn() ? MnkBoard.X : MnkBoard.O) != c.mark ? NOT_YOUR_TURN
+                : !match.board.isLegal(cell) ? ILLEGAL : 0;
+        if (reason != 0) {
+            rejects++;
+            send(c, REJECT, (byte) (cell >> 8), (byte) cell, reason);
+            return;
+        }
+        match.board.make(cell);
+        moves++;
+        // A send can drop a backlogged player, and the drop already ended the match and told
+        // the opponent, so stop as soon as the match is gone
+        send(match.x, MOVED, (byte) (cell >> 8), (byte) cell, (byte) c.mark);
+        if (c.match != match) {
+            return;
+        }
+        send(match.o, MOVED, (byte) (cell >> 8), (byte) cell, (byte) c.mark);
+        if (c.match != match) {
+            return;
+        }
+        if (match.board.isOver()) {
+            byte winner = (byte) match.board.winner();
+            end(match);
+            send(match.x, OVER, winner, FINISHED);
+            send(match.o, OVER, winner, FINISHED);
+            gamesFinished++;
+        }
+    }
+
+    // Leaves the queue, or resigns the current match
+    private void leave(Connection c) {
+        if (c.waitingFor >= 0) {
+            waiting.remove(c.waitingFor, c);
+            c.waitingFor = -1;
+            waitingPlayers--;
+        }
+        Match match = c.match;
+        if (match != null) {
+            Connection other = match.opponent(c);
+            end(match);
+            send(other, OVER, (byte) other.mark, ABANDONED);
+        }
+    }
+
+    private void end(Match match) {
+        match.x.match = null;
+        match.o.match = null;
+        liveMatches--;
+    }
+
+    private void send(Connection c, byte... message) {
+        if (!c.key.isValid()) {
+            return;
+        }
+        if (c.out.remaining() < message.length) {
+            if (c.out.capacity() >= MAX_BACKLOG) {
+                drop(c); // Not reading its messages
+                return;
+            }
+            ByteBuffer bigger = ByteBuffer.allocate(c.out.capacity() * 2);
+            c.out.flip();
+            bigger.put(c.out);
+            c.out = bigger;
+        }
+        c.out.put(message);
+        if (!c.queuedForFlush) {
+            c.queuedForFlush = true;
+            dirty.add(c);
+        }
+    }
+
+    private void flush(Connection c) {
+        if (!c.key.isValid()) {
+            return;
+        }
+        c.out.flip();
+        try {
+            c.channel.write(c.out);
+        } catch (IOException e) {
+            c.out.clear();
+            drop(c);
+            return;
+        }
+        boolean more = c.out.hasRemaining();
+        c.out.compact();
+        // Wait for the socket to drain before writing the rest
+        c.key.interestOps(more ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+    }
+
+    private void drop(Connection c) {
+        if (!c.key.isValid()) {
+            return;
+        }
+        closeQuietly(c.key);
+        connections--;
+        leave(c);
+    }
+
+    private static void closeQuietly(SelectionKey key) {
+        key.cancel();
+        closeQuietly(key.channel());
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception ignored) {
+        }
+    }
+
+    String status() {
+        return String.format("%d connections, %d waiting, %d live matches, %d moves, %d games, %d rejected",
+                connections, waitingPlayers, liveMatches, moves, gamesFinished, rejects);
+    }
+
+    long moves() { return moves; }
+    long gamesFinished() { return gamesFinished; }
+
+    // java org.example.TicTacToeServer [port]
+    // Play with: java org.example.TicTacToe 3 3 3 --connect=localhost:7777 (twice)
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        TicTacToeServer server = new TicTacToeServer(new InetSocketAddress(port));
+        Thread thread = new Thread(server, "tictactoe-server");
+        thread.start();
+        System.out.println("TicTacToe server on port " + server.port());
+
+        long lastMoves = 0;
+        while (thread.isAlive()) {
+            Thread.sleep(5000);
+            long moves = server.moves();
+            System.out.printf("%s, %.0f moves/s%n", server.status(), (moves - lastMoves) / 5.0);
+            lastMoves = moves;
+        }
+    }
+}
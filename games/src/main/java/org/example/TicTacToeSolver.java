@@ -0,0 +1,187 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// Every legal 3x3 position solved once. Positions are folded under the 8 board symmetries,
+// so only 765 canonical positions are stored: a sorted key array and a parallel value array.
+// The table is built on first use and takes a few milliseconds.
+class TicTacToeSolver {
+    enum Difficulty {
+        EASY(0.6), MEDIUM(0.25), PERFECT(0);
+
+        final double mistakeRate; // Chance of deliberately picking a non-optimal move
+
+        Difficulty(double mistakeRate) {
+            this.mistakeRate = mistakeRate;
+        }
+    }
+
+    // SYMMETRY[s][mask] is mask under rotation/reflection s; s = 0 is the identity
+    private static final short[][] SYMMETRY = new short[8][1 << 9];
+
+    static {
+        int[][] perms = {
+                {0, 1, 2, 3, 4, 5, 6, 7, 8}, // identity
+                {6, 3, 0, 7, 4, 1, 8, 5, 2}, // rotate 90
+                {8, 7, 6, 5, 4, 3, 2, 1, 0}, // rotate 180
+                {2, 5, 8, 1, 4, 7, 0, 3, 6}, // rotate 270
+                {2, 1, 0, 5, 4, 3, 8, 7, 6}, // mirror left-right
+                {6, 7, 8, 3, 4, 5, 0, 1, 2}, // mirror top-bottom
+                {0, 3, 6, 1, 4, 7, 2, 5, 8}, // main diagonal
+                {8, 5, 2, 7, 4, 1, 6, 3, 0} // anti diagonal
+        };
+        for (int s = 0; s < 8; s++) {
+            for (int mask = 0; mask < (1 << 9); mask++) {
+                int out = 0;
+                for (int cell = 0; cell < 9; cell++) {
+                    if ((mask & (1 << perms[s][cell])) != 0) {
+                        out |= 1 << cell;
+                    }
+                }
+                SYMMETRY[s][mask] = (short) out;
+            }
+        }
+    }
+
+    // Lazily built on first lookup
+    private static final class Table {
+        static final int[] KEYS;
+        static final byte[] VALUES;
+
+        static {
+            byte[] scratch = new byte[1 << 18];
+            Arrays.fill(scratch, Byte.MIN_VALUE);
+            solve(0, 0, scratch);
+
+            int n = 0;
+            for (byte v : scratch) {
+                if (v != Byte.MIN_VALUE) {
+                    n++;
+                }
+            }
+            KEYS = new int[n];
+            VALUES = new byte[n];
+            for (int key = 0, i = 0; key < scratch.length; key++) {
+                if (scratch[key] != Byte.MIN_VALUE) {
+                    KEYS[i] = key;
+                    VALUES[i++] = scratch[key];
+                }
+            }
+        }
+
+        private static int solve(int x, int o, byte[] memo) {
+            int key = canonical(x, o);
+            if (memo[key] != Byte.MIN_VALUE) {
+                return memo[key];
+            }
+            int value = terminalValue(x, o);
+            if (value == Integer.MIN_VALUE) {
+                boolean xToMove = Integer.bitCount(x) == Integer.bitCount(o);
+                value = -100;
+                for (int free = ~(x | o) & TicTacToeBoard.FULL; free != 0; free &= free - 1) {
+                    int bit = free & -free;
+                    int child = xToMove ? solve(x | bit, o, memo) : solve(x, o | bit, memo);
+                    value = Math.max(value, -child);
+                }
+            }
+            memo[key] = (byte) value;
+            return value;
+        }
+    }
+
+    private TicTacToeSolver() {}
+
+    // Smallest (x << 9 | o) over all 8 symmetric images of the position
+    static int canonical(int x, int o) {
+        int best = Integer.MAX_VALUE;
+        for (short[] sym : SYMMETRY) {
+            best = Math.min(best, sym[x] << 9 | sym[o]);
+        }
+        return best;
+    }
+
+    // Value of a finished position for the side to move, or MIN_VALUE if the game goes on.
+    // Wins and losses are worth 10 minus the stones on the board, so faster wins rank higher.
+    private static int terminalValue(int x, int o) {
+        int stones = Integer.bitCount(x | o);
+        if (TicTacToeBoard.isWin(x) || TicTacToeBoard.isWin(o)) {
+            return -(10 - stones); // The player who just moved completed a line
+        }
+        return stones == 9 ? 0 : Integer.MIN_VALUE;
+    }
+
+    // Game-theoretic value for the side to move: > 0 wins, 0 draws, < 0 loses
+    static int evaluate(int x, int o) {
+        int i = Arrays.binarySearch(Table.KEYS, canonical(x, o));
+        if (i < 0) {
+            throw new IllegalArgumentException("Not a reachable position: x=" + x + " o=" + o);
+        }
+        return Table.VALUES[i];
+    }
+
+    // Value of playing cell, from the point of view of the side that plays it
+    static int moveValue(int x, int o, int cell) {
+        boolean xToMove = Integer.bitCount(x) == Integer.bitCount(o);
+        int bit = 1 << cell;
+        return xToMove ? -evaluate(x | bit, o) : -evaluate(x, o | bit);
+    }
+
+    // A best move, ties broken at random; -1 if the game is over
+    static int bestMove(int x, int o, Random random) {
+        if (terminalValue(x, o) != Integer.MIN_VALUE) {
+            return -1;
+        }
+        int best = Integer.MIN_VALUE, choice = -1, ties = 0;
+        for (int free = ~(x | o) & TicTacToeBoard.FULL; free != 0; free &= free - 1) {
+            int cell = Integer.numberOfTrailingZeros(free);
+            int v = moveValue(x, o, cell);
+            if (v > best) {
+                best = v;
+                choice = cell;
+                ties = 1;
+            } else if (v == best && random.nextInt(++ties) == 0) {
+                choice = cell;
+            }
+        }
+        return choice;
+    }
+
+    static int hint(int x, int o) {
+        return bestMove(x, o, new Random(0));
+    }
+
+    // With the difficulty's mistake rate, picks uniformly among the moves that are worse than
+    // the best one; otherwise plays perfectly
+    static int move(int x, int o, Difficulty difficulty, Random random) {
+        int best = bestMove(x, o, random);
+        if (best < 0 || random.nextDouble() >= difficulty.mistakeRate) {
+            return best;
+        }
+        int bestValue = moveValue(x, o, best);
+        int choice = best, worse = 0;
+        for (int free = ~(x | o) & TicTacToeBoard.FULL; free != 0; free &= free - 1) {
+            int cell = Integer.numberOfTrailingZeros(free);
+            if (moveValue(x, o, cell) < bestValue && random.nextInt(++worse) == 0) {
+                choice = cell;
+            }
+        }
+        return choice;
+    }
+
+    // Human-readable verdict, e.g. "X wins in 3" (moves by both sides)
+    static String describe(int x, int o) {
+        boolean xToMove = Integer.bitCount(x) == Integer.bitCount(o);
+        int value = evaluate(x, o);
+        if (value == 0) {
+            return "Draw with best play";
+        }
+        String side = (value > 0) == xToMove ? "X" : "O";
+        int plies = 10 - Math.abs(value) - Integer.bitCount(x | o);
+        return plies == 0 ? side + " has won" : side + " wins in " + plies;
+    }
+
+    static int positionCount() {
+        return Table.KEYS.length;
+    }
+}
@@ -0,0 +1,145 @@
+package org.example;
+
+import java.util.Random;
+
+// A 3x3 TicTacToe player for headless games. Positions are TicTacToeBoard bitmasks; the side to
+// move follows from the stone counts. Implementations must not allocate per move, so millions of
+// games can run without the GC noticing, and must not keep state between calls: one instance
+// plays on many threads at once. random belongs to the calling thread.
+interface TicTacToeStrategy {
+    // A free cell for the side to move; the game is not over yet
+    int move(int x, int o, Random random);
+
+    enum Builtin implements TicTacToeStrategy {
+        // Any free cell
+        RANDOM {
+            @Override
+            public int move(int x, int o, Random random) {
+                return randomCell(~(x | o) & TicTacToeBoard.FULL, random);
+            }
+        },
+        // Win if possible, else block, else centre, corner, edge
+        HEURISTIC {
+            @Override
+            public int move(int x, int o, Random random) {
+                boolean xToMove = Integer.bitCount(x) == Integer.bitCount(o);
+                int mine = xToMove ? x : o, theirs = xToMove ? o : x;
+                int free = ~(x | o) & TicTacToeBoard.FULL;
+                int win = completing(mine, free), block = completing(theirs, free);
+                if (win != 0) {
+                    return randomCell(win, random);
+                }
+                if (block != 0) {
+                    return randomCell(block, random);
+                }
+                if ((free & CENTRE) != 0) {
+                    return 4;
+                }
+                return randomCell((free & CORNERS) != 0 ? free & CORNERS : free, random);
+            }
+        },
+        // Shallow alpha-beta over a line-count evaluation; sees two plies ahead, no further
+        SEARCH {
+            @Override
+            public int move(int x, int o, Random random) {
+                boolean xToMove = Integer.bitCount(x) == Integer.bitCount(o);
+                int mine = xToMove ? x : o, theirs = xToMove ? o : x;
+                int best = Integer.MIN_VALUE, choice = -1, ties = 0;
+                for (int free = ~(x | o) & TicTacToeBoard.FULL; free != 0; free &= free - 1) {
+                    int bit = free & -free;
+                    int v = -negamax(theirs, mine | bit, SEARCH_DEPTH - 1, -INF, INF);
+                    if (v > best) {
+                        best = v;
+                        choice = Integer.numberOfTrailingZeros(bit);
+                        ties = 1;
+                    } else if (v == best && random.nextInt(++ties) == 0) {
+                        choice = Integer.numberOfTrailingZeros(bit);
+                    }
+                }
+                return choice;
+            }
+        },
+        // The solver's difficulty levels; PERFECT never loses
+        EASY {
+            @Override
+            public int move(int x, int o, Random random) {
+                return TicTacToeSolver.move(x, o, TicTacToeSolver.Difficulty.EASY, random);
+            }
+        },
+        MEDIUM {
+            @Override
+            public int move(int x, int o, Random random) {
+                return TicTacToeSolver.move(x, o, TicTacToeSolver.Difficulty.MEDIUM, random);
+            }
+        },
+        PERFECT {
+            @Override
+            public int move(int x, int o, Random random) {
+                return TicTacToeSolver.bestMove(x, o, random);
+            }
+        };
+
+        private static final int CENTRE = 1 << 4;
+        private static final int CORNERS = 0b101_000_101;
+        private static final int SEARCH_DEPTH = 2;
+        private static final int INF = 1 << 20;
+        private static final int[] LINE_WEIGHT = {0, 1, 10, 100};
+
+        // Free cells that would complete a line for stones
+        private static int completing(int stones, int free) {
+            int cells = 0;
+            for (int line : TicTacToeBoard.WIN_MASKS) {
+                int missing = line & ~stones;
+                if (Integer.bitCount(missing) == 1 && (missing & free) != 0) {
+                    cells |= missing;
+                }
+            }
+            return cells;
+        }
+
+        // Uniform pick among the set bits of cells
+        private static int randomCell(int cells, Random random) {
+            for (int skip = random.nextInt(Integer.bitCount(cells)); skip > 0; skip--) {
+                cells &= cells - 1;
+            }
+            return Integer.numberOfTrailingZeros(cells);
+        }
+
+        // Value for the side owning mine, which is to move; theirs just moved
+        private static int negamax(int mine, int theirs, int depth, int alpha, int beta) {
+            if (TicTacToeBoard.isWin(theirs)) {
+                return -INF / 2 - depth; // Lost; sooner is worse
+            }
+            int free = ~(mine | theirs) & TicTacToeBoard.FULL;
+            if (free == 0) {
+                return 0;
+            }
+            if (depth == 0) {
+                return evaluate(mine, theirs);
+            }
+            for (; free != 0; free &= free - 1) {
+                int v = -negamax(theirs, mine | (free & -free), depth - 1, -beta, -alpha);
+                if (v > alpha) {
+                    alpha = v;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+            return alpha;
+        }
+
+        // Open lines weighted by how many stones they hold
+        private static int evaluate(int mine, int theirs) {
+            int score = 0;
+            for (int line : TicTacToeBoard.WIN_MASKS) {
+                if ((line & theirs) == 0) {
+                    score += LINE_WEIGHT[Integer.bitCount(line & mine)];
+                } else if ((line & mine) == 0) {
+                    score -= LINE_WEIGHT[Integer.bitCount(line & theirs)];
+                }
+            }
+            return score;
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+
+// Headless round robin between TicTacToeStrategy players. Every ordered pair (self-play
+// included) plays the same number of games, cut into batches that run in parallel on a
+// ForkJoinPool. A game is a loop over two ints - no board objects, no allocation - so a core
+// plays millions of games a second with the cheap strategies.
+//
+// Only per-pairing totals are kept. Each batch is streamed as a CSV line when it finishes,
+// so a long run can be watched or cut short without losing what was played.
+class TicTacToeTournament {
+    private static final int BATCH = 20_000; // Games per task
+    static final int X_WIN = 0, DRAW = 1, O_WIN = 2;
+
+    private final String[] names;
+    private final TicTacToeStrategy[] strategies;
+    private final long[][][] results; // [x player][o player][X_WIN | DRAW | O_WIN]
+    private final boolean check;
+
+    TicTacToeTournament(String[] names, TicTacToeStrategy[] strategies, boolean check) {
+        this.names = names;
+        this.strategies = strategies;
+        this.results = new long[strategies.length][strategies.length][3];
+        this.check = check;
+    }
+
+    // One game; returns X_WIN, DRAW or O_WIN
+    static int play(TicTacToeStrategy xPlayer, TicTacToeStrategy oPlayer, Random random) {
+        int x = 0, o = 0;
+        for (boolean xTurn = true; ; xTurn = !xTurn) {
+            int cell = (xTurn ? xPlayer : oPlayer).move(x, o, random);
+            int bit = 1 << cell;
+            if (cell < 0 || cell > 8 || ((x | o) & bit) != 0) {
+                throw new IllegalStateException((xTurn ? xPlayer : oPlayer) + " played illegal cell " + cell
+                        + " (x=" + x + " o=" + o + ")");
+            }
+            if (xTurn) {
+                x |= bit;
+                if (TicTacToeBoard.isWin(x)) {
+                    return X_WIN;
+                }
+            } else {
+                o |= bit;
+                if (TicTacToeBoard.isWin(o)) {
+                    return O_WIN;
+                }
+            }
+            if ((x | o) == TicTacToeBoard.FULL) {
+                return DRAW;
+            }
+        }
+    }
+
+    // The same game, with every move also played on an MnkBoard and a TicTacToeBoard and the
+    // three models required to agree on legality and outcome
+    private static int playChecked(TicTacToeStrategy xPlayer, TicTacToeStrategy oPlayer, Random random,
+                                   MnkBoard mnk, TicTacToeBoard board) {
+        mnk.reset();
+        board.reset();
+        int x = 0, o = 0;
+        int result = -1;
+        for (boolean xTurn = true; result < 0; xTurn = !xTurn) {
+            int cell = (xTurn ? xPlayer : oPlayer).move(x, o, random);
+            if (!mnk.isLegal(cell) || !board.play(cell)) {
+                throw new IllegalStateException((xTurn ? xPlayer : oPlayer) + " played illegal cell " + cell);
+            }
+            mnk.make(cell);
+            if (xTurn) {
+                x |= 1 << cell;
+            } else {
+                o |= 1 << cell;
+            }
+            result = TicTacToeBoard.isWin(x) ? X_WIN : TicTacToeBoard.isWin(o) ? O_WIN
+                    : (x | o) == TicTacToeBoard.FULL ? DRAW : -1;
+            boolean over = result >= 0;
+            if (mnk.isOver() != over || board.isOver() != over || mnk.bits(MnkBoard.X) != x
+                    || board.xBits() != x || board.oBits() != o) {
+                throw new IllegalStateException("Boards disagree after cell " + cell + " (x=" + x + " o=" + o + ")");
+            }
+        }
+        int expected = result == X_WIN ? MnkBoard.X : result == O_WIN ? MnkBoard.O : MnkBoard.NONE;
+        if (mnk.winner() != expected || board.winner() != expected) {
+            throw new IllegalStateException("Boards disagree on the winner (x=" + x + " o=" + o + ")");
+        }
+        return result;
+    }
+
+    private static final class Batch {
+        final int xPlayer, oPlayer, games;
+        final long[] counts = new long[3];
+
+        Batch(int xPlayer, int oPlayer, int games) {
+            this.xPlayer = xPlayer;
+            this.oPlayer = oPlayer;
+            this.games = games;
+        }
+    }
+
+    // Per worker thread: its own random and, for --check, its own boards
+    private static final class Local {
+        final Random random = new Random();
+        final MnkBoard mnk = new MnkBoard(3, 3, 3);
+        final TicTacToeBoard board = new TicTacToeBoard();
+    }
+
+    private Batch run(Batch batch, ThreadLocal<Local> locals) {
+        Local local = locals.get();
+        TicTacToeStrategy xPlayer = strategies[batch.xPlayer], oPlayer = strategies[batch.oPlayer];
+        for (int g = 0; g < batch.games; g++) {
+            batch.counts[check ? playChecked(xPlayer, oPlayer, local.random, local.mnk, local.board)
+                    : play(xPlayer, oPlayer, local.random)]++;
+        }
+        return batch;
+    }
+
+    // Plays gamesPerPairing games for every ordered pair; out gets one CSV line per batch
+    void run(long gamesPerPairing, int threads, PrintStream out) throws InterruptedException {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        CompletionService<Batch> done = new ExecutorCompletionService<>(pool);
+        ThreadLocal<Local> locals = ThreadLocal.withInitial(Local::new);
+        int pairings = strategies.length * strategies.length;
+        long tasks = (gamesPerPairing + BATCH - 1) / BATCH * pairings;
+        long submitted = 0;
+
+        out.println("x,o,games,x_wins,draws,o_wins");
+        try {
+            for (long t = 0; t < tasks; t++) {
+                // A few batches per thread in flight. Batches of all pairings interleave, so a run
+                // stopped early still covers every pairing.
+                for (; submitted < tasks && submitted < t + 4L * threads; submitted++) {
+                    long round = submitted / pairings;
+                    int pairing = (int) (submitted % pairings);
+                    Batch batch = new Batch(pairing / strategies.length, pairing % strategies.length,
+                            (int) Math.min(BATCH, gamesPerPairing - round * BATCH));
+                    done.submit(() -> run(batch, locals));
+                }
+                Batch b = done.take().get();
+                long[] total = results[b.xPlayer][b.oPlayer];
+                for (int r = 0; r < 3; r++) {
+                    total[r] += b.counts[r];
+                }
+                out.printf("%s,%s,%d,%d,%d,%d%n", names[b.xPlayer], names[b.oPlayer], b.games,
+                        b.counts[X_WIN], b.counts[DRAW], b.counts[O_WIN]);
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Game failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+            out.flush();
+        }
+    }
+
+    // Wins, draws and losses of i against j, both colours together
+    long[] record(int i, int j) {
+        long[] asX = results[i][j], asO = results[j][i];
+        return new long[]{asX[X_WIN] + asO[O_WIN], asX[DRAW] + asO[DRAW], asX[O_WIN] + asO[X_WIN]};
+    }
+
+    // Ratings that best explain the scores between different strategies (draws count half):
+    // repeated Elo updates against the expected scores until they settle, centred on 1500.
+    // Capped at +-2000 around the mean so a strategy that never scores doesn't run off.
+    double[] elo() {
+        int n = strategies.length;
+        double[] rating = new double[n];
+        for (int iteration = 0; iteration < 10_000; iteration++) {
+            double maxStep = 0;
+            for (int i = 0; i < n; i++) {
+                double actual = 0, expected = 0, games = 0;
+                for (int j = 0; j < n; j++) {
+                    if (i == j) {
+                        continue;
+                    }
+                    long[] r = record(i, j);
+                    long played = r[0] + r[1] + r[2];
+                    actual += r[0] + 0.5 * r[1];
+                    expected += played / (1 + Math.pow(10, (rating[j] - rating[i]) / 400));
+                    games += played;
+                }
+                if (games > 0) {
+                    double step = 800 * (actual - expected) / games;
+                    rating[i] = Math.max(-2000, Math.min(2000, rating[i] + step));
+                    maxStep = Math.max(maxStep, Math.abs(step));
+                }
+            }
+            double mean = 0;
+            for (double r : rating) {
+                mean += r / n;
+            }
+            for (int i = 0; i < n; i++) {
+                rating[i] -= mean;
+            }
+            if (maxStep < 0.01) {
+                break;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            rating[i] += 1500;
+        }
+        return rating;
+    }
+
+    void printSummary(PrintStream out) {
+        int width = 11;
+        for (String name : names) {
+            width = Math.max(width, name.length() + 2);
+        }
+        out.println("Win/draw/loss % of row against column, both colours:");
+        out.print(pad("", width));
+        for (String name : names) {
+            out.print(pad(name, 15));
+        }
+        out.println();
+        for (int i = 0; i < names.length; i++) {
+            out.print(pad(names[i], width));
+            for (int j = 0; j < names.length; j++) {
+                long[] r = record(i, j);
+                double total = Math.max(1, r[0] + r[1] + r[2]);
+                out.print(pad(String.format(Locale.ROOT, "%.0f/%.0f/%.0f",
+                        100 * r[0] / total, 100 * r[1] / total, 100 * r[2] / total), 15));
+            }
+            out.println();
+        }
+
+        double[] elo = elo();
+        Integer[] order = new Integer[names.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(elo[b], elo[a]));
+        out.println("Elo:");
+        for (int i : order) {
+            out.printf(Locale.ROOT, "  %s%.0f%n", pad(names[i], width), elo[i]);
+        }
+    }
+
+    private static String pad(String s, int width) {
+        StringBuilder sb = new StringBuilder(s);
+        while (sb.length() < width) {
+            sb.append(' ');
+        }
+        return sb.toString();
+    }
+
+    // java org.example.TicTacToeTournament [--games=100000] [--strategies=random,heuristic,search,easy,medium,perfect]
+    //                                      [--threads=cores] [--out=results.csv] [--check]
+    // --games is per ordered pairing. --check also plays every move on MnkBoard and TicTacToeBoard
+    // and fails on any disagreement: slower, but it stresses the game logic.
+    public static void main(String[] args) throws IOException, InterruptedException {
+        long games = 100_000;
+        List<TicTacToeStrategy.Builtin> chosen = new ArrayList<>(List.of(TicTacToeStrategy.Builtin.values()));
+        int threads = Runtime.getRuntime().availableProcessors();
+        String outFile = null;
+        boolean check = false;
+        for (String arg : args) {
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (arg.startsWith("--games=")) {
+                games = Long.parseLong(value);
+            } else if (arg.startsWith("--strategies=")) {
+                chosen.clear();
+                for (String name : value.split(",")) {
+                    chosen.add(TicTacToeStrategy.Builtin.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+                }
+            } else if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(value);
+            } else if (arg.startsWith("--out=")) {
+                outFile = value;
+            } else if (arg.equals("--check")) {
+                check = true;
+            }
+        }
+
+        String[] names = new String[chosen.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = chosen.get(i).name().toLowerCase(Locale.ROOT);
+        }
+        TicTacToeTournament tournament = new TicTacToeTournament(names,
+                chosen.toArray(new TicTacToeStrategy[0]), check);
+        long total = games * names.length * names.length;
+        System.out.printf("%,d games (%,d per pairing) on %d threads%s%n", total, games, threads,
+                check ? ", cross-checking boards" : "");
+
+        long start = System.nanoTime();
+        if (outFile != null) {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(Paths.get(outFile)), false, "UTF-8")) {
+                tournament.run(games, threads, out);
+            }
+        } else {
+            tournament.run(games, threads, new PrintStream(OutputStream.nullOutputStream()));
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf(Locale.ROOT, "Done in %.1f s: %,.0f games/s%n", seconds, total / seconds);
+        tournament.printSummary(System.out);
+    }
+}
@@ -0,0 +1,178 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Ultimate TicTacToe: a 3x3 grid of 3x3 boards. The cell a move is played on names the small
+// board the opponent has to play on next; if that board is already won or full, they may play
+// on any open one. Winning a small board claims its square on the big board, and three claimed
+// squares in a row win the game. Once every small board is won or full with no three in a row,
+// it's a draw.
+//
+// Every small board is a pair of 9-bit masks like TicTacToeBoard's, and the big board is one
+// more pair plus a mask of closed squares, so all win checks are TicTacToeBoard's table
+// lookups. Moves are numbered board * 9 + cell; copyFrom and randomMove let a search run
+// playouts without allocating.
+class UltimateBoard {
+    static final int NONE = 0, X = 1, O = 2;
+    static final int CELLS = 81;
+    static final int ANY = -1; // forced() when the side to move may pick its board
+
+    private final int[] x = new int[9], o = new int[9]; // Stones per small board
+    private int bigX, bigO; // Small boards won
+    private int closed; // Small boards won or full
+    private int forced = ANY;
+    private int winner;
+    private final byte[] history = new byte[CELLS];
+    private int moves;
+
+    void copyFrom(UltimateBoard other) {
+        System.arraycopy(other.x, 0, x, 0, 9);
+        System.arraycopy(other.o, 0, o, 0, 9);
+        bigX = other.bigX;
+        bigO = other.bigO;
+        closed = other.closed;
+        forced = other.forced;
+        winner = other.winner;
+        System.arraycopy(other.history, 0, history, 0, other.moves);
+        moves = other.moves;
+    }
+
+    UltimateBoard copy() {
+        UltimateBoard b = new UltimateBoard();
+        b.copyFrom(this);
+        return b;
+    }
+
+    void reset() {
+        Arrays.fill(x, 0);
+        Arrays.fill(o, 0);
+        bigX = bigO = closed = 0;
+        forced = ANY;
+        winner = NONE;
+        moves = 0;
+    }
+
+    // Plays the side to move; the caller checks isLegal first
+    void make(int move) {
+        int b = move / 9, bit = 1 << (move % 9);
+        history[moves++] = (byte) move;
+        if ((moves & 1) == 1) {
+            x[b] |= bit;
+            if (TicTacToeBoard.isWin(x[b])) {
+                bigX |= 1 << b;
+                closed |= 1 << b;
+                if (TicTacToeBoard.isWin(bigX)) {
+                    winner = X;
+                }
+            }
+        } else {
+            o[b] |= bit;
+            if (TicTacToeBoard.isWin(o[b])) {
+                bigO |= 1 << b;
+                closed |= 1 << b;
+                if (TicTacToeBoard.isWin(bigO)) {
+                    winner = O;
+                }
+            }
+        }
+        if ((x[b] | o[b]) == TicTacToeBoard.FULL) {
+            closed |= 1 << b;
+        }
+        forced = (closed & bit) != 0 ? ANY : move % 9;
+    }
+
+    // Takes back the last move by replaying the rest; for the UI, not for search
+    void undo() {
+        int kept = moves - 1;
+        byte[] line = history.clone();
+        reset();
+        for (int i = 0; i < kept; i++) {
+            make(line[i]);
+        }
+    }
+
+    boolean isLegal(int move) {
+        if (move < 0 || move >= CELLS || isOver()) {
+            return false;
+        }
+        int b = move / 9;
+        return (forced == ANY ? (closed & 1 << b) == 0 : b == forced) && ((x[b] | o[b]) & 1 << (move % 9)) == 0;
+    }
+
+    // Writes the legal moves to out and returns how many there are
+    int legalMoves(byte[] out) {
+        int n = 0;
+        for (int b = 0; b < 9; b++) {
+            if (forced == ANY ? (closed & 1 << b) != 0 : b != forced) {
+                continue;
+            }
+            for (int free = ~(x[b] | o[b]) & TicTacToeBoard.FULL; free != 0; free &= free - 1) {
+                out[n++] = (byte) (b * 9 + Integer.numberOfTrailingZeros(free));
+            }
+        }
+        return n;
+    }
+
+    // A uniformly random legal move, without building the list
+    int randomMove(SplittableRandom random) {
+        if (forced != ANY) {
+            return forced * 9 + pick(~(x[forced] | o[forced]) & TicTacToeBoard.FULL, random);
+        }
+        int total = 0;
+        for (int open = ~closed & TicTacToeBoard.FULL; open != 0; open &= open - 1) {
+            int b = Integer.numberOfTrailingZeros(open);
+            total += 9 - Integer.bitCount(x[b] | o[b]);
+        }
+        int n = random.nextInt(total);
+        for (int open = ~closed & TicTacToeBoard.FULL; ; open &= open - 1) {
+            int b = Integer.numberOfTrailingZeros(open);
+            int free = ~(x[b] | o[b]) & TicTacToeBoard.FULL;
+            int count = Integer.bitCount(free);
+            if (n < count) {
+                for (; n > 0; n--) {
+                    free &= free - 1;
+                }
+                return b * 9 + Integer.numberOfTrailingZeros(free);
+            }
+            n -= count;
+        }
+    }
+
+    private static int pick(int bits, SplittableRandom random) {
+        for (int n = random.nextInt(Integer.bitCount(bits)); n > 0; n--) {
+            bits &= bits - 1;
+        }
+        return Integer.numberOfTrailingZeros(bits);
+    }
+
+    int get(int move) {
+        int b = move / 9, bit = 1 << (move % 9);
+        if ((x[b] & bit) != 0) {
+            return X;
+        }
+        return (o[b] & bit) != 0 ? O : NONE;
+    }
+
+    // Who took small board b, NONE if nobody (yet)
+    int boardWinner(int b) {
+        if ((bigX & 1 << b) != 0) {
+            return X;
+        }
+        return (bigO & 1 << b) != 0 ? O : NONE;
+    }
+
+    // Mask of the big board's completed line, or 0 while nobody has won
+    int winningLine() {
+        return winner == X ? TicTacToeBoard.winningLine(bigX) : winner == O ? TicTacToeBoard.winningLine(bigO) : 0;
+    }
+
+    int forced() { return forced; }
+    boolean isOpen(int b) { return (closed & 1 << b) == 0; }
+    int winner() { return winner; }
+    boolean isOver() { return winner != NONE || closed == TicTacToeBoard.FULL; }
+    boolean isXTurn() { return (moves & 1) == 0; }
+    int moves() { return moves; }
+    int moveAt(int i) { return history[i]; }
+    int lastMove() { return moves == 0 ? -1 : history[moves - 1]; }
+}
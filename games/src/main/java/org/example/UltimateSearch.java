@@ -0,0 +1,323 @@
+package org.example;
+
+import java.util.SplittableRandom;
+
+// Monte Carlo tree search for UltimateBoard, root-parallel: every thread grows its own tree
+// from the same root with its own random playouts, and only the root's move counts are added
+// up at the end. Nothing is shared while searching, so there are no locks or atomics.
+//
+// A tree is a set of flat arrays allocated once; a node's children sit next to each other and
+// are all added the second time the node is reached. Playouts run on a reused board, so a
+// search allocates nothing after its first call. Trees are kept between calls: the next
+// search starts from the subtree of the moves played since, copied to the front of a spare
+// set of arrays so the rest of the space is free again.
+class UltimateSearch {
+    private static final double EXPLORATION = 1.4; // UCT constant, about sqrt(2) for 0..1 rewards
+    private static final int CHECK_EVERY = 64; // Playouts between clock checks
+
+    private final int nodes; // Tree capacity, split between the threads
+    private Worker[] workers = new Worker[0];
+    // The current call's; set before its threads start, and calls never overlap since they share the trees
+    private Cancellation stop = new Cancellation();
+    private long deadline;
+
+    static final class Result {
+        final int move;
+        final double winRate; // For the side to move, draws counted as half
+        final long playouts, reused, nanos;
+
+        Result(int move, double winRate, long playouts, long reused, long nanos) {
+            this.move = move;
+            this.winRate = winRate;
+            this.playouts = playouts;
+            this.reused = reused;
+            this.nanos = nanos;
+        }
+
+        double playoutsPerSecond() {
+            return playouts * 1e9 / Math.max(1, nanos);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("move %d, %.0f%% to win, %d playouts (%d reused), %.0f kplayouts/s",
+                    move, winRate * 100, playouts, reused, playoutsPerSecond() / 1000);
+        }
+    }
+
+    UltimateSearch(int nodeBits) {
+        nodes = 1 << nodeBits;
+    }
+
+    // Best move for the side to move after budgetMillis of playouts on the given number of threads
+    Result search(UltimateBoard root, long budgetMillis, int threads) {
+        return search(root, budgetMillis, threads, new Cancellation());
+    }
+
+    // The same, ending early once cancel is cancelled
+    Result search(UltimateBoard root, long budgetMillis, int threads, Cancellation cancel) {
+        if (root.isOver()) {
+            throw new IllegalStateException("Game is already over");
+        }
+        long start = System.nanoTime();
+        deadline = start + budgetMillis * 1_000_000L;
+        stop = cancel;
+        if (workers.length != threads) {
+            workers = new Worker[threads];
+            for (int i = 0; i < threads; i++) {
+                workers[i] = new Worker(i, nodes / threads);
+            }
+        }
+
+        long reused = 0;
+        Thread[] pool = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            reused += workers[i].moveTo(root);
+            if (i > 0) {
+                pool[i] = new Thread(workers[i], "ultimate-search-" + i);
+                pool[i].setDaemon(true);
+                pool[i].start();
+            }
+        }
+        workers[0].run();
+        stop.cancel();
+        for (int i = 1; i < threads; i++) {
+            try {
+                pool[i].join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // Most visited move over all the trees
+        long[] visits = new long[UltimateBoard.CELLS];
+        long[] points = new long[UltimateBoard.CELLS];
+        long playouts = 0;
+        for (Worker w : workers) {
+            w.addRootChildren(visits, points);
+            playouts += w.playouts;
+        }
+        int best = -1;
+        for (int m = 0; m < UltimateBoard.CELLS; m++) {
+            if (visits[m] > 0 && (best < 0 || visits[m] > visits[best])) {
+                best = m;
+            }
+        }
+        return new Result(best, points[best] / (2.0 * visits[best]), playouts, reused, System.nanoTime() - start);
+    }
+
+    // One worker's nodes. Node 0 is the root; wins are in half points (2 per win, 1 per draw)
+    // for the player who made the node's move.
+    private static final class Tree {
+        final byte[] move, childCount;
+        final int[] firstChild, visits, wins;
+
+        Tree(int capacity) {
+            move = new byte[capacity];
+            childCount = new byte[capacity];
+            firstChild = new int[capacity];
+            visits = new int[capacity];
+            wins = new int[capacity];
+        }
+    }
+
+    private final class Worker implements Runnable {
+        private final int capacity;
+        private Tree tree, spare;
+        private int size; // Nodes in use
+        private final UltimateBoard root = new UltimateBoard(); // The position node 0 stands for
+        private final UltimateBoard board = new UltimateBoard();
+        private final int[] path = new int[UltimateBoard.CELLS + 1];
+        private final byte[] legal = new byte[UltimateBoard.CELLS];
+        private final SplittableRandom random;
+        long playouts;
+
+        Worker(int id, int capacity) {
+            this.capacity = capacity;
+            tree = new Tree(capacity);
+            spare = new Tree(capacity);
+            random = new SplittableRandom(id * 0x9E3779B97F4A7C15L + System.nanoTime());
+        }
+
+        // Re-roots the tree at position, keeping what it already knows about it if position
+        // follows on from the last root; returns the playouts kept
+        long moveTo(UltimateBoard position) {
+            playouts = 0;
+            int node = size > 0 && root.moves() <= position.moves() ? 0 : -1;
+            for (int i = 0; i < root.moves() && node >= 0; i++) {
+                if (root.moveAt(i) != position.moveAt(i)) {
+                    node = -1;
+                }
+            }
+            for (int i = root.moves(); i < position.moves() && node >= 0; i++) {
+                node = child(node, position.moveAt(i));
+            }
+            root.copyFrom(position);
+            if (node < 0) {
+                size = 1;
+                tree.childCount[0] = 0;
+                tree.visits[0] = 0;
+                tree.wins[0] = 0;
+                return 0;
+            }
+            if (node > 0) {
+                compact(node);
+            }
+            return tree.visits[0];
+        }
+
+        private int child(int node, int move) {
+            int first = tree.firstChild[node];
+            for (int c = first; c < first + tree.childCount[node]; c++) {
+                if (tree.move[c] == move) {
+                    return c;
+                }
+            }
+            return -1;
+        }
+
+        // Copies the subtree under node into the spare arrays, breadth first so every node's
+        // children stay together. Until a copied node is reached, its firstChild holds its old index.
+        private void compact(int node) {
+            Tree from = tree, to = spare;
+            copyNode(from, node, to, 0);
+            to.firstChild[0] = node;
+            int top = 1;
+            for (int n = 0; n < top; n++) {
+                int old = to.firstChild[n];
+                int count = from.childCount[old];
+                to.childCount[n] = (byte) count;
+                to.firstChild[n] = top;
+                for (int c = 0; c < count; c++) {
+                    copyNode(from, from.firstChild[old] + c, to, top + c);
+                    to.firstChild[top + c] = from.firstChild[old] + c;
+                }
+                top += count;
+            }
+            tree = to;
+            spare = from;
+            size = top;
+        }
+
+        private void copyNode(Tree from, int i, Tree to, int j) {
+            to.move[j] = from.move[i];
+            to.visits[j] = from.visits[i];
+            to.wins[j] = from.wins[i];
+        }
+
+        void addRootChildren(long[] visits, long[] points) {
+            int first = tree.firstChild[0];
+            for (int c = first; c < first + tree.childCount[0]; c++) {
+                visits[tree.move[c]] += tree.visits[c];
+                points[tree.move[c]] += tree.wins[c];
+            }
+        }
+
+        @Override
+        public void run() {
+            // At least one round, so even a search cancelled before it started has a move
+            do {
+                for (int i = 0; i < CHECK_EVERY; i++) {
+                    playout();
+                }
+                if (System.nanoTime() > deadline) {
+                    stop.cancel();
+                }
+            } while (!stop.isCancelled());
+        }
+
+        // Select down the tree, add one level, play randomly to the end, and back the result up
+        private void playout() {
+            Tree t = tree;
+            board.copyFrom(root);
+            int node = 0, depth = 0;
+            path[0] = 0;
+            while (t.childCount[node] != 0) {
+                node = select(t, node);
+                board.make(t.move[node]);
+                path[++depth] = node;
+            }
+            if (t.visits[node] > 0 && !board.isOver() && size + UltimateBoard.CELLS <= capacity) {
+                node = expand(t, node);
+                board.make(t.move[node]);
+                path[++depth] = node;
+            }
+            while (!board.isOver()) {
+                board.make(board.randomMove(random));
+            }
+            playouts++;
+
+            int winner = board.winner();
+            for (int d = depth; d >= 0; d--) {
+                int n = path[d];
+                // The move into a node at depth d was ply root.moves() + d - 1, X's if that's even
+                int mover = ((root.moves() + d - 1) & 1) == 0 ? UltimateBoard.X : UltimateBoard.O;
+                t.visits[n]++;
+                t.wins[n] += winner == mover ? 2 : winner == UltimateBoard.NONE ? 1 : 0;
+            }
+        }
+
+        // UCT; unvisited children first, in the shuffled order expand() left them in
+        private int select(Tree t, int node) {
+            int first = t.firstChild[node], end = first + t.childCount[node];
+            double logVisits = Math.log(t.visits[node]);
+            int best = first;
+            double bestValue = -1;
+            for (int c = first; c < end; c++) {
+                int v = t.visits[c];
+                if (v == 0) {
+                    return c;
+                }
+                double value = t.wins[c] / (2.0 * v) + EXPLORATION * Math.sqrt(logVisits / v);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = c;
+                }
+            }
+            return best;
+        }
+
+        // Adds all of node's children and returns the first
+        private int expand(Tree t, int node) {
+            int n = board.legalMoves(legal);
+            for (int i = n - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                byte m = legal[i];
+                legal[i] = legal[j];
+                legal[j] = m;
+            }
+            int first = size;
+            for (int i = 0; i < n; i++) {
+                t.move[first + i] = legal[i];
+                t.childCount[first + i] = 0;
+                t.visits[first + i] = 0;
+                t.wins[first + i] = 0;
+            }
+            size += n;
+            t.firstChild[node] = first;
+            t.childCount[node] = (byte) n;
+            return first;
+        }
+    }
+
+    // Self-play benchmark: java org.example.UltimateSearch [millis per move] [threads]
+    public static void main(String[] args) {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        UltimateBoard board = new UltimateBoard();
+        UltimateSearch search = new UltimateSearch(21);
+        long playouts = 0, nanos = 0;
+        while (!board.isOver()) {
+            Result r = search.search(board, millis, threads);
+            System.out.println((board.isXTurn() ? "X " : "O ") + r);
+            board.make(r.move);
+            playouts += r.playouts;
+            nanos += r.nanos;
+        }
+        String result = board.winner() == UltimateBoard.X ? "X wins"
+                : board.winner() == UltimateBoard.O ? "O wins" : "Draw";
+        System.out.printf("%s after %d moves, %.0f kplayouts/s on %d threads%n",
+                result, board.moves(), playouts * 1e6 / Math.max(1, nanos), threads);
+    }
+}
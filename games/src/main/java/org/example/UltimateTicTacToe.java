@@ -0,0 +1,238 @@
+package org.example;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import java.awt.*;
+import java.util.function.Consumer;
+
+// Ultimate TicTacToe against a friend or the Monte Carlo search. The computer plays O and
+// keeps its search tree from move to move, so the longer a game goes the more it already
+// knows when its turn comes.
+public class UltimateTicTacToe extends JFrame {
+    private static final long[] THINK_MILLIS = {250, 1000, 3000, 10_000};
+    private static final String[] THINK_NAMES = {"Think 0.25 s", "Think 1 s", "Think 3 s", "Think 10 s"};
+
+    private final UltimateBoard board = new UltimateBoard();
+    private final UltimateView view;
+    private final JLabel statusLabel, searchLabel;
+    private final UltimateSearch search = new UltimateSearch(20);
+    private final int searchThreads;
+    private long thinkMillis;
+    private boolean computer = true; // Plays O
+    private boolean thinking; // A background search is running; the board ignores clicks
+    private Cancellation searchCancel = new Cancellation(); // Stops the running search, if any
+    private int game; // Bumped on every reset and undo so a search from an old position is dropped
+
+    private final Color BG = new Color(25, 25, 35);
+    private final Color GRID = new Color(50, 50, 70);
+    private final Color X_COLOR = new Color(0, 200, 255);
+    private final Color O_COLOR = new Color(255, 100, 100);
+    private final Color WIN = new Color(0, 230, 150);
+
+    public UltimateTicTacToe(long thinkMillis, int searchThreads) {
+        this.thinkMillis = thinkMillis;
+        this.searchThreads = searchThreads;
+        setTitle("Ultimate Tic Tac Toe");
+        setSize(620, 760);
+        setDefaultCloseOperation(EXIT_ON_CLOSE);
+        setLocationRelativeTo(null);
+        setLayout(new BorderLayout(10, 10));
+        getContentPane().setBackground(BG);
+
+        JPanel header = new JPanel(new BorderLayout());
+        header.setBackground(BG);
+        header.setBorder(new EmptyBorder(20, 20, 10, 20));
+        statusLabel = new JLabel("X's Turn", SwingConstants.CENTER);
+        statusLabel.setFont(new Font("Segoe UI", Font.BOLD, 28));
+        header.add(statusLabel, BorderLayout.NORTH);
+        searchLabel = new JLabel(" ", SwingConstants.CENTER);
+        searchLabel.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+        searchLabel.setForeground(Color.GRAY);
+        header.add(searchLabel, BorderLayout.CENTER);
+
+        view = new UltimateView(BG, GRID, X_COLOR, O_COLOR, WIN);
+        view.setBoard(board);
+        view.setOnClick(this::cellClicked);
+
+        JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 20, 20));
+        controlPanel.setBackground(BG);
+        JButton restartBtn = createModernButton("Restart Game", new Color(100, 150, 255));
+        restartBtn.addActionListener(e -> resetGame());
+        JButton undoBtn = createModernButton("\u25c0 Undo", new Color(90, 90, 120));
+        undoBtn.addActionListener(e -> undo());
+        JButton hintBtn = createModernButton("Hint", new Color(255, 170, 0));
+        hintBtn.addActionListener(e -> showHint());
+
+        JComboBox<String> modeBox = new JComboBox<>(new String[]{"vs Computer", "2 Players"});
+        modeBox.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        modeBox.addActionListener(e -> {
+            computer = modeBox.getSelectedIndex() == 0;
+            resetGame();
+        });
+        JComboBox<String> thinkBox = new JComboBox<>(THINK_NAMES);
+        thinkBox.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        for (int i = 0; i < THINK_MILLIS.length; i++) {
+            if (THINK_MILLIS[i] == thinkMillis) {
+                thinkBox.setSelectedIndex(i);
+            }
+        }
+        thinkBox.addActionListener(e -> this.thinkMillis = THINK_MILLIS[thinkBox.getSelectedIndex()]);
+
+        controlPanel.add(restartBtn);
+        controlPanel.add(undoBtn);
+        controlPanel.add(hintBtn);
+        controlPanel.add(modeBox);
+        controlPanel.add(thinkBox);
+
+        add(header, BorderLayout.NORTH);
+        add(view, BorderLayout.CENTER);
+        add(controlPanel, BorderLayout.SOUTH);
+        renderBoard();
+        setVisible(true);
+    }
+
+    private JButton createModernButton(String text, Color color) {
+        JButton btn = new JButton(text) {
+            @Override
+            protected void paintComponent(Graphics g) {
+                Graphics2D g2 = (Graphics2D) g;
+                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                g2.setColor(getModel().isPressed() ? color.darker() : getModel().isRollover() ? color.brighter() : color);
+                g2.fillRoundRect(0, 0, getWidth(), getHeight(), 25, 25);
+                super.paintComponent(g);
+            }
+        };
+        btn.setFont(new Font("Segoe UI", Font.BOLD, 16));
+        btn.setForeground(Color.WHITE);
+        btn.setContentAreaFilled(false);
+        btn.setBorderPainted(false);
+        btn.setFocusPainted(false);
+        btn.setPreferredSize(new Dimension(150, 45));
+        btn.setCursor(new Cursor(Cursor.HAND_CURSOR));
+        return btn;
+    }
+
+    private void cellClicked(int move) {
+        if (board.isOver()) {
+            resetGame(); // The finished board stays up until the next click
+            return;
+        }
+        if (thinking || (computer && !board.isXTurn()) || !board.isLegal(move)) {
+            return;
+        }
+        board.make(move);
+        positionChanged();
+        if (computer && !board.isOver()) {
+            searchInBackground(r -> {
+                board.make(r.move);
+                positionChanged();
+            });
+        }
+    }
+
+    // Runs the search off the EDT and hands the result back on it, unless the game moved on meanwhile
+    private void searchInBackground(Consumer<UltimateSearch.Result> done) {
+        thinking = true;
+        searchLabel.setText("Thinking...");
+        UltimateBoard position = board.copy();
+        int startedIn = game;
+        long millis = thinkMillis;
+        Cancellation cancel = searchCancel = new Cancellation();
+        new SwingWorker<UltimateSearch.Result, Void>() {
+            @Override
+            protected UltimateSearch.Result doInBackground() {
+                return search.search(position, millis, searchThreads, cancel);
+            }
+
+            @Override
+            protected void done() {
+                thinking = false;
+                if (startedIn != game) {
+                    searchLabel.setText(" ");
+                    return;
+                }
+                try {
+                    UltimateSearch.Result r = get();
+                    searchLabel.setText(String.format("%,d playouts (%,d kept) \u00b7 %,.0f k/s on %d threads \u00b7 %.0f%% for %s",
+                            r.playouts, r.reused, r.playoutsPerSecond() / 1000, searchThreads, r.winRate * 100,
+                            position.isXTurn() ? "X" : "O"));
+                    done.accept(r);
+                } catch (Exception e) {
+                    searchLabel.setText("Search failed: " + e.getMessage());
+                }
+            }
+        }.execute();
+    }
+
+    private void showHint() {
+        if (!board.isOver() && !thinking) {
+            searchInBackground(r -> view.setHint(r.move));
+        }
+    }
+
+    // Back to the player's last turn against the computer, one move otherwise
+    private void undo() {
+        if (thinking || board.moves() == 0) {
+            return;
+        }
+        game++;
+        board.undo();
+        if (computer && !board.isXTurn() && board.moves() > 0) {
+            board.undo();
+        }
+        positionChanged();
+        searchLabel.setText(" ");
+    }
+
+    private void positionChanged() {
+        view.setHint(-1);
+        renderBoard();
+    }
+
+    private void renderBoard() {
+        view.repaint();
+        if (board.winner() != UltimateBoard.NONE) {
+            statusLabel.setText("Player " + (board.winner() == UltimateBoard.X ? "X" : "O") + " wins!");
+            statusLabel.setForeground(WIN);
+        } else if (board.isOver()) {
+            statusLabel.setText("It's a draw!");
+            statusLabel.setForeground(WIN);
+        } else {
+            statusLabel.setText(board.isXTurn() ? "X's Turn" : "O's Turn");
+            statusLabel.setForeground(board.isXTurn() ? X_COLOR : O_COLOR);
+        }
+    }
+
+    // A running search is cancelled, but it shares its trees with the next one, so thinking
+    // stays on until it has actually stopped, a few playouts later
+    private void resetGame() {
+        searchCancel.cancel();
+        game++;
+        board.reset();
+        searchLabel.setText(thinking ? "Stopping..." : " ");
+        positionChanged();
+    }
+
+    // java org.example.UltimateTicTacToe [--think=millis] [--threads=n]
+    public static void main(String[] args) {
+        long think = 1000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (String arg : args) {
+            if (arg.startsWith("--think=")) {
+                think = Long.parseLong(arg.substring("--think=".length()));
+            } else if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(arg.substring("--threads=".length()));
+            }
+        }
+        long millis = think;
+        int searchThreads = threads;
+        SwingUtilities.invokeLater(() -> {
+            try {
+                UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+            new UltimateTicTacToe(millis, searchThreads);
+        });
+    }
+}
@@ -0,0 +1,204 @@
+package org.example;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.function.IntConsumer;
+
+// The Ultimate board as one component: nine small boards with a wider gap between them. The
+// boards the next move may go on are lit, a won board is covered by its winner's big mark,
+// and the last move is outlined. 81 cells are cheap enough to repaint whole on every change.
+class UltimateView extends JComponent {
+    private static final Color HOVER = new Color(255, 255, 255, 30);
+    private static final Color PLAYABLE = new Color(255, 255, 255, 28);
+    private static final Color HINT = new Color(255, 200, 0, 90);
+    private static final Color TAKEN = new Color(25, 25, 35, 170); // Dims a won board under its mark
+    private static final int BORDER = 10;
+
+    private final Color background, cell, xColor, oColor, winColor;
+    private IntConsumer onClick = m -> {};
+    private UltimateBoard board;
+    private int hover = -1, pressed = -1, hint = -1;
+
+    // Geometry, recomputed on resize
+    private int left, top, cellSize, gap, boardGap;
+    private Font smallFont, bigFont;
+
+    UltimateView(Color background, Color cell, Color xColor, Color oColor, Color winColor) {
+        this.background = background;
+        this.cell = cell;
+        this.xColor = xColor;
+        this.oColor = oColor;
+        this.winColor = winColor;
+        setOpaque(true);
+        setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                setHover(moveAt(e.getX(), e.getY()));
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                setHover(-1);
+            }
+
+            @Override
+            public void mousePressed(MouseEvent e) {
+                pressed = SwingUtilities.isLeftMouseButton(e) ? moveAt(e.getX(), e.getY()) : -1;
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                int move = moveAt(e.getX(), e.getY());
+                if (move >= 0 && move == pressed) {
+                    onClick.accept(move);
+                }
+                pressed = -1;
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+    }
+
+    void setOnClick(IntConsumer onClick) {
+        this.onClick = onClick;
+    }
+
+    void setBoard(UltimateBoard board) {
+        this.board = board;
+        repaint();
+    }
+
+    // Marks a suggested move until the next change; -1 for none
+    void setHint(int move) {
+        hint = move;
+        repaint();
+    }
+
+    private void setHover(int move) {
+        if (move != hover) {
+            hover = move;
+            repaint();
+        }
+    }
+
+    // Move for the cell under (x, y), or -1 over a gap or the border
+    int moveAt(int x, int y) {
+        if (board == null || !layoutCells()) {
+            return -1;
+        }
+        int col = column(x - left), row = column(y - top);
+        if (col < 0 || row < 0) {
+            return -1;
+        }
+        return (row / 3 * 3 + col / 3) * 9 + row % 3 * 3 + col % 3;
+    }
+
+    // Which of the nine cell columns offset falls in, or -1
+    private int column(int offset) {
+        int boardStep = 3 * cellSize + 2 * gap + boardGap;
+        int b = offset / boardStep, inBoard = offset % boardStep;
+        int c = inBoard / (cellSize + gap);
+        if (offset < 0 || b > 2 || c > 2 || inBoard % (cellSize + gap) >= cellSize) {
+            return -1;
+        }
+        return b * 3 + c;
+    }
+
+    private int cellX(int col) { return left + col / 3 * (3 * cellSize + 2 * gap + boardGap) + col % 3 * (cellSize + gap); }
+    private int cellY(int row) { return top + row / 3 * (3 * cellSize + 2 * gap + boardGap) + row % 3 * (cellSize + gap); }
+
+    private boolean layoutCells() {
+        int side = Math.min(getWidth(), getHeight()) - 2 * BORDER;
+        gap = Math.max(2, side / 150);
+        boardGap = gap * 4;
+        int size = (side - 6 * gap - 2 * boardGap) / 9;
+        if (size <= 0) {
+            return false;
+        }
+        int extent = 9 * size + 6 * gap + 2 * boardGap;
+        left = (getWidth() - extent) / 2;
+        top = (getHeight() - extent) / 2;
+        if (size != cellSize) {
+            cellSize = size;
+            smallFont = new Font("Segoe UI", Font.BOLD, Math.max(10, size * 2 / 3));
+            bigFont = new Font("Segoe UI", Font.BOLD, size * 3);
+        }
+        return true;
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(540, 540);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        g.setColor(background);
+        g.fillRect(0, 0, getWidth(), getHeight());
+        if (board == null || !layoutCells()) {
+            return;
+        }
+        Graphics2D g2 = (Graphics2D) g;
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        int arc = Math.max(4, cellSize / 4);
+        int boardSize = 3 * cellSize + 2 * gap;
+        int line = board.winningLine();
+
+        for (int b = 0; b < 9; b++) {
+            int bx = cellX(b % 3 * 3), by = cellY(b / 3 * 3);
+            boolean playable = !board.isOver() && board.isOpen(b)
+                    && (board.forced() == UltimateBoard.ANY || board.forced() == b);
+            if (playable) {
+                g2.setColor(PLAYABLE);
+                g2.fillRoundRect(bx - gap, by - gap, boardSize + 2 * gap, boardSize + 2 * gap, arc, arc);
+            }
+            for (int c = 0; c < 9; c++) {
+                int move = b * 9 + c;
+                int x = cellX(b % 3 * 3 + c % 3), y = cellY(b / 3 * 3 + c / 3);
+                g2.setColor(cell);
+                g2.fillRoundRect(x, y, cellSize, cellSize, arc, arc);
+                int mark = board.get(move);
+                if (move == hint) {
+                    g2.setColor(HINT);
+                    g2.fillRoundRect(x, y, cellSize, cellSize, arc, arc);
+                } else if (mark == UltimateBoard.NONE && move == hover && board.isLegal(move)) {
+                    g2.setColor(HOVER);
+                    g2.fillRoundRect(x, y, cellSize, cellSize, arc, arc);
+                }
+                if (mark != UltimateBoard.NONE) {
+                    drawMark(g2, mark, smallFont, x, y, cellSize);
+                }
+                if (move == board.lastMove()) {
+                    g2.setColor(Color.WHITE);
+                    g2.drawRoundRect(x, y, cellSize - 1, cellSize - 1, arc, arc);
+                }
+            }
+            int owner = board.boardWinner(b);
+            if (owner != UltimateBoard.NONE) {
+                g2.setColor(TAKEN);
+                g2.fillRoundRect(bx, by, boardSize, boardSize, arc, arc);
+                if ((line & 1 << b) != 0) {
+                    Stroke plain = g2.getStroke();
+                    g2.setColor(winColor);
+                    g2.setStroke(new BasicStroke(Math.max(2, gap)));
+                    g2.drawRoundRect(bx, by, boardSize, boardSize, arc, arc);
+                    g2.setStroke(plain);
+                }
+                drawMark(g2, owner, bigFont, bx, by, boardSize);
+            }
+        }
+    }
+
+    private void drawMark(Graphics2D g2, int mark, Font font, int x, int y, int size) {
+        String text = mark == UltimateBoard.X ? "X" : "O";
+        g2.setFont(font);
+        g2.setColor(mark == UltimateBoard.X ? xColor : oColor);
+        FontMetrics fm = g2.getFontMetrics();
+        g2.drawString(text, x + (size - fm.stringWidth(text)) / 2, y + (size - fm.getHeight()) / 2 + fm.getAscent());
+    }
+}
@@ -0,0 +1,103 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlappyReplayTest {
+    @TempDir
+    Path dir;
+
+    // Plays seed on course with the given flaps, recording it the way GamePanel does
+    private static FlappyReplay play(long seed, DifficultyCurve.Preset course, int maxTicks, Random flaps) {
+        FlappyEngine engine = new FlappyEngine(seed, course);
+        FlappyReplay.Recorder recorder = new FlappyReplay.Recorder();
+        recorder.start(seed);
+        while (!engine.isGameOver() && engine.getTick() < maxTicks) {
+            boolean flap = flaps == null ? FlappyEngine.autopilot(engine) : flaps.nextInt(12) == 0;
+            if (flap) {
+                recorder.flap(engine.getTick());
+            }
+            engine.step(flap);
+        }
+        return recorder.finish(engine);
+    }
+
+    @Test
+    void roundTripsAFinishedRun() throws IOException {
+        FlappyReplay run = play(17, DifficultyCurve.Preset.CLASSIC, 100_000, new Random(3));
+        assertTrue(run.finished);
+
+        Path file = dir.resolve(run.fileName());
+        run.write(file);
+        FlappyReplay read = FlappyReplay.read(file);
+        assertEquals(run.course, read.course);
+        assertEquals(run.seed, read.seed);
+        assertEquals(run.ticks, read.ticks);
+        assertEquals(run.score, read.score);
+        assertEquals(run.flaps, read.flaps);
+        assertTrue(read.finished);
+        assertTrue(read.verify());
+    }
+
+    // The autopilot outlives the tick limit, so the run is cut off rather than finished
+    @Test
+    void roundTripsARunThatWasCutOff() throws IOException {
+        FlappyReplay run = play(99, DifficultyCurve.Preset.RAMP, 5000, null);
+        assertFalse(run.finished);
+        assertTrue(run.score > 0);
+
+        Path file = dir.resolve("cut.flpr");
+        run.write(file);
+        FlappyReplay read = FlappyReplay.read(file);
+        assertEquals(DifficultyCurve.Preset.RAMP, read.course);
+        assertEquals(5000, read.ticks);
+        assertTrue(read.verify());
+    }
+
+    // Re-simulating from the file lands on the same tick, score and crash as the original
+    @Test
+    void cursorReplaysTheSameRun() throws IOException {
+        FlappyReplay run = play(5, DifficultyCurve.Preset.CLASSIC, 100_000, new Random(8));
+        Path file = dir.resolve("run.flpr");
+        run.write(file);
+        FlappyReplay read = FlappyReplay.read(file);
+
+        FlappyEngine engine = new FlappyEngine(read.seed, read.course);
+        FlappyReplay.Cursor cursor = read.cursor();
+        int flaps = 0;
+        while (!engine.isGameOver()) {
+            boolean flap = cursor.flap(engine.getTick());
+            flaps += flap ? 1 : 0;
+            engine.step(flap);
+        }
+        assertEquals(run.ticks, engine.getTick());
+        assertEquals(run.score, engine.getScore());
+        assertEquals(run.flaps, flaps);
+    }
+
+    @Test
+    void rejectsATamperedScore() throws IOException {
+        FlappyReplay run = play(17, DifficultyCurve.Preset.CLASSIC, 100_000, new Random(3));
+        Path file = dir.resolve("run.flpr");
+        run.write(file);
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).putInt(4 + 1 + 1 + 1 + 8 + 4, run.score + 1);
+        Files.write(file, bytes);
+        assertFalse(FlappyReplay.read(file).verify());
+    }
+
+    @Test
+    void rejectsAFileThatIsNotAReplay() throws IOException {
+        Path file = dir.resolve("junk.flpr");
+        Files.write(file, new byte[40]);
+        assertThrows(IOException.class, () -> FlappyReplay.read(file));
+    }
+}
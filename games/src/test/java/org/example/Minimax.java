@@ -0,0 +1,118 @@
+package org.example;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntBinaryOperator;
+
+// Plain memoized minimax on a side x side board, side in a row: slow, but obviously right,
+// so the solved tables are held to it
+final class Minimax {
+    static final int WIN = 1, DRAW = 0, LOSS = -1;
+
+    final int side, full;
+    private final int[] lines;
+    private final Map<Long, Integer> memo = new HashMap<>();
+
+    Minimax(int side) {
+        this.side = side;
+        full = (1 << side * side) - 1;
+        lines = new int[2 * side + 2];
+        int row = (1 << side) - 1, column = 0, diagonal = 0, anti = 0;
+        for (int i = 0; i < side; i++) {
+            column |= 1 << i * side;
+            diagonal |= 1 << i * side + i;
+            anti |= 1 << i * side + side - 1 - i;
+        }
+        for (int i = 0; i < side; i++) {
+            lines[i] = row << i * side;
+            lines[side + i] = column << i;
+        }
+        lines[2 * side] = diagonal;
+        lines[2 * side + 1] = anti;
+    }
+
+    boolean hasLine(int stones) {
+        for (int line : lines) {
+            if ((stones & line) == line) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean isOver(int x, int o) {
+        return hasLine(x) || hasLine(o) || (x | o) == full;
+    }
+
+    static boolean xToMove(int x, int o) {
+        return Integer.bitCount(x) == Integer.bitCount(o);
+    }
+
+    // WIN, DRAW or LOSS for the side to move
+    int value(int x, int o) {
+        boolean xToMove = xToMove(x, o);
+        if (hasLine(xToMove ? o : x)) {
+            return LOSS;
+        }
+        if ((x | o) == full) {
+            return DRAW;
+        }
+        Long key = (long) x << 32 | o;
+        Integer known = memo.get(key);
+        if (known != null) {
+            return known;
+        }
+        int best = LOSS;
+        for (int free = ~(x | o) & full; free != 0 && best != WIN; free &= free - 1) {
+            int bit = free & -free;
+            best = Math.max(best, -(xToMove ? value(x | bit, o) : value(x, o | bit)));
+        }
+        memo.put(key, best);
+        return best;
+    }
+
+    // Value after the side to move plays cell, for the player who played it
+    int moveValue(int x, int o, int cell) {
+        return -(xToMove(x, o) ? value(x | 1 << cell, o) : value(x, o | 1 << cell));
+    }
+
+    // Plays a game from the empty board, asking chooser for each move until it returns -1;
+    // returns the final position as x << 16 | o
+    static int playOut(IntBinaryOperator chooser) {
+        int x = 0, o = 0;
+        for (int cell; (cell = chooser.applyAsInt(x, o)) >= 0; ) {
+            if (xToMove(x, o)) {
+                x |= 1 << cell;
+            } else {
+                o |= 1 << cell;
+            }
+        }
+        return x << 16 | o;
+    }
+
+    interface PositionCheck {
+        void check(int x, int o);
+    }
+
+    // Every position reachable from the empty board, finished ones included, each visited once
+    void walk(PositionCheck check) {
+        walk(0, 0, check, new HashSet<>());
+    }
+
+    private void walk(int x, int o, PositionCheck check, Set<Long> seen) {
+        if (!seen.add((long) x << 32 | o)) {
+            return;
+        }
+        check.check(x, o);
+        if (isOver(x, o)) {
+            return;
+        }
+        boolean xToMove = xToMove(x, o);
+        for (int free = ~(x | o) & full; free != 0; free &= free - 1) {
+            int bit = free & -free;
+            walk(xToMove ? x | bit : x, xToMove ? o : o | bit, check, seen);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatsStoreTest {
+    private static final int LOG_HEADER = 16, RECORD = 32;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void keepsStatsAcrossRuns() throws IOException {
+        try (StatsStore store = StatsStore.openOrThrow(dir)) {
+            store.recordFlappy(12, 300);
+            store.recordFlappy(3, 100);
+            store.recordTicTacToe(MnkBoard.X, 2000);
+            store.recordTicTacToe(MnkBoard.NONE, 4000);
+        }
+        try (StatsStore store = StatsStore.openOrThrow(dir)) {
+            assertEquals(2, store.flappyGames());
+            assertEquals(12, store.flappyHighScore());
+            assertEquals(200, store.flappyMeanTicks());
+            assertEquals(1, store.xWins());
+            assertEquals(1, store.draws());
+            assertEquals(3000, store.ticTacToeMeanMillis());
+            assertEquals(2, store.sessions().size());
+            assertEquals(1, store.currentSession().id);
+            assertEquals(2, store.sessions().get(0).flappyGames);
+        }
+    }
+
+    // kill -9 after a flush: the files are on disk but close() never ran
+    @Test
+    void replaysTheLogAfterAnUncleanClose() throws IOException {
+        Path copy = dir.resolve("copy");
+        try (StatsStore store = StatsStore.openOrThrow(dir.resolve("live"))) {
+            for (int i = 0; i < 10; i++) {
+                store.recordFlappy(i, 50);
+            }
+            store.flush();
+            copyFiles(dir.resolve("live"), copy);
+        }
+        try (StatsStore store = StatsStore.openOrThrow(copy)) {
+            assertEquals(10, store.flappyGames());
+            assertEquals(9, store.flappyHighScore());
+        }
+    }
+
+    @Test
+    void cutsOffATornRecordAtTheEndOfTheLog() throws IOException {
+        try (StatsStore store = StatsStore.openOrThrow(dir)) {
+            store.recordFlappy(5, 10);
+            store.recordFlappy(6, 10);
+        }
+        Path log = dir.resolve("stats.log");
+        long valid = Files.size(log);
+        Files.write(log, new byte[RECORD / 2], StandardOpenOption.APPEND);
+
+        try (StatsStore store = StatsStore.openOrThrow(dir)) {
+            assertEquals(2, store.flappyGames());
+            store.recordFlappy(7, 10);
+        }
+        assertEquals(valid + 2 * RECORD, Files.size(log)); // The new session and game follow the cut
+        try (StatsStore store = StatsStore.openOrThrow(dir)) {
+            assertEquals(3, store.flappyGames());
+        }
+    }
+
+    @Test
+    void stopsAtACorruptRecordInTheMiddle() throws IOException {
+        try (StatsStore store = StatsStore.openOrThrow(dir)) {
+            for (int i = 0; i < 4; i++) {
+                store.recordFlappy(i, 10);
+            }
+        }
+        // Records: session, then games 0..3; flip a byte in game 2
+        try (FileChannel log = FileChannel.open(dir.resolve("stats.log"), StandardOpenOption.WRITE)) {
+            log.write(ByteBuffer.wrap(new byte[]{0x7F}), LOG_HEADER + 3L * RECORD + 10);
+        }
+        try (StatsStore store = StatsStore.openOrThrow(dir)) {
+            assertEquals(2, store.flappyGames());
+        }
+    }
+
+    @Test
+    void startsFreshOnAnEmptyLog() throws IOException {
+        Files.write(dir.resolve("stats.log"), new byte[0]);
+        try (StatsStore store = StatsStore.openOrThrow(dir)) {
+            assertEquals(0, store.flappyGames());
+            assertEquals(1, store.sessions().size());
+        }
+    }
+
+    @Test
+    void rebuildsFromTheLogWhenTheSnapshotIsEmpty() throws IOException {
+        corruptSnapshotThenReopen(new byte[0]);
+    }
+
+    @Test
+    void rebuildsFromTheLogWhenTheSnapshotIsTruncated() throws IOException {
+        compactOnce();
+        byte[] snapshot = Files.readAllBytes(dir.resolve("stats.snapshot"));
+        corruptSnapshotThenReopen(Arrays.copyOf(snapshot, snapshot.length / 2));
+    }
+
+    @Test
+    void rebuildsFromTheLogWhenTheSnapshotFailsItsCrc() throws IOException {
+        compactOnce();
+        byte[] snapshot = Files.readAllBytes(dir.resolve("stats.snapshot"));
+        snapshot[snapshot.length / 2] ^= 1;
+        corruptSnapshotThenReopen(snapshot);
+    }
+
+    // Records two more games, replaces the snapshot with the given bytes and checks the store
+    // opens with what the log holds and moves the bad snapshot aside
+    private void corruptSnapshotThenReopen(byte[] snapshot) throws IOException {
+        try (StatsStore store = StatsStore.openOrThrow(dir)) {
+            store.recordFlappy(40, 10);
+            store.recordFlappy(41, 10);
+        }
+        long inLog = flappyRecordsInLog();
+        assertTrue(inLog >= 2);
+        Files.write(dir.resolve("stats.snapshot"), snapshot);
+
+        try (StatsStore store = StatsStore.openOrThrow(dir)) {
+            assertEquals(inLog, store.flappyGames());
+            assertEquals(41, store.flappyHighScore());
+            store.recordFlappy(1, 10);
+        }
+        assertTrue(Files.exists(dir.resolve("stats.snapshot.corrupt")));
+        try (StatsStore store = StatsStore.openOrThrow(dir)) {
+            assertEquals(inLog + 1, store.flappyGames());
+        }
+    }
+
+    // Flappybird records are kind 1, the byte after each record's CRC
+    private long flappyRecordsInLog() throws IOException {
+        byte[] log = Files.readAllBytes(dir.resolve("stats.log"));
+        long n = 0;
+        for (int at = LOG_HEADER; at + RECORD <= log.length; at += RECORD) {
+            n += log[at + 4] == 1 ? 1 : 0;
+        }
+        return n;
+    }
+
+    // Enough records in one run for the writer to fold the log into a snapshot
+    private void compactOnce() throws IOException {
+        try (StatsStore store = StatsStore.openOrThrow(dir)) {
+            for (int i = 0; i < 5000; i++) {
+                store.recordFlappy(i % 30, 10);
+            }
+        }
+        assertTrue(Files.exists(dir.resolve("stats.snapshot")));
+        try (StatsStore store = StatsStore.openOrThrow(dir)) {
+            assertEquals(5000, store.flappyGames());
+        }
+    }
+
+    @Test
+    void keepsOnlyTheNewestSessions() throws IOException {
+        for (int run = 0; run < 120; run++) {
+            try (StatsStore store = StatsStore.openOrThrow(dir)) {
+                for (int i = 0; i < 40; i++) {
+                    store.recordTicTacToe(MnkBoard.O, 1); // Crosses a compaction now and then
+                }
+                store.recordFlappy(run, 10);
+            }
+        }
+        try (StatsStore store = StatsStore.openOrThrow(dir)) {
+            List<StatsStore.Session> sessions = store.sessions();
+            assertEquals(100, sessions.size());
+            assertEquals(21, sessions.get(0).id);
+            assertEquals(120, store.currentSession().id);
+            assertEquals(119, sessions.get(98).flappyBest);
+            assertEquals(40, sessions.get(98).ticTacToeGames);
+            assertEquals(120, store.flappyGames()); // Dropped sessions still count in the totals
+            assertEquals(120 * 40, store.oWins());
+        }
+    }
+
+    private static void copyFiles(Path from, Path to) throws IOException {
+        Files.createDirectories(to);
+        for (String name : new String[]{"stats.log", "stats.snapshot"}) {
+            if (Files.exists(from.resolve(name))) {
+                Files.copy(from.resolve(name), to.resolve(name), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+}
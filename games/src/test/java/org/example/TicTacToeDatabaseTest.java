@@ -0,0 +1,101 @@
+package org.example;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TicTacToeDatabaseTest {
+    private static TicTacToeDatabase database;
+    private final Minimax minimax = new Minimax(4);
+
+    @BeforeAll
+    static void build(@TempDir Path dir) throws IOException {
+        database = TicTacToeDatabase.openOrBuild(dir.resolve(TicTacToeDatabase.DEFAULT_FILE));
+    }
+
+    private static int value(int x, int o) {
+        int v = database.value(x, o);
+        assertNotEquals(TicTacToeDatabase.UNKNOWN, v, "reachable position x=" + x + " o=" + o);
+        return v == TicTacToeDatabase.WIN ? Minimax.WIN : v == TicTacToeDatabase.DRAW ? Minimax.DRAW : Minimax.LOSS;
+    }
+
+    // Minimax can't afford the early positions, so it checks everything from 7 stones on
+    // along random games
+    @Test
+    void matchesMinimaxAlongRandomGames() {
+        Random random = new Random(7);
+        for (int game = 0; game < 300; game++) {
+            Minimax.playOut((x, o) -> {
+                if (Integer.bitCount(x | o) >= 7) {
+                    assertEquals(minimax.value(x, o), value(x, o), "x=" + x + " o=" + o);
+                }
+                return randomFree(x, o, random);
+            });
+        }
+    }
+
+    @Test
+    void bestMoveKeepsTheValueFromSevenStones() {
+        Random random = new Random(11);
+        for (int game = 0; game < 100; game++) {
+            Minimax.playOut((x, o) -> {
+                int cell = Integer.bitCount(x | o) < 7 ? randomFree(x, o, random) : database.bestMove(x, o, random);
+                if (cell >= 0 && Integer.bitCount(x | o) >= 7) {
+                    assertEquals(minimax.value(x, o), minimax.moveValue(x, o, cell), "x=" + x + " o=" + o + " cell=" + cell);
+                }
+                return cell;
+            });
+        }
+    }
+
+    private int randomFree(int x, int o, Random random) {
+        if (minimax.isOver(x, o)) {
+            return -1;
+        }
+        int free = ~(x | o) & minimax.full;
+        for (int skip = random.nextInt(Integer.bitCount(free)); skip > 0; skip--) {
+            free &= free - 1;
+        }
+        return Integer.numberOfTrailingZeros(free);
+    }
+
+    @Test
+    void perfectPlayAgainstItselfIsADraw() {
+        assertEquals(TicTacToeDatabase.DRAW, database.value(0, 0));
+        Random random = new Random(3);
+        for (int game = 0; game < 20; game++) {
+            int end = Minimax.playOut((x, o) -> {
+                assertEquals(Minimax.DRAW, value(x, o));
+                return database.bestMove(x, o, random);
+            });
+            assertEquals("Draw", database.describe(end >>> 16, end & 0xFFFF));
+        }
+    }
+
+    @Test
+    void knowsNothingAboutUnreachablePositions() {
+        // X completed the top row, yet it's X's turn again
+        assertEquals(TicTacToeDatabase.UNKNOWN, database.value(0xF, 0x330));
+        // Both have a row
+        assertEquals(TicTacToeDatabase.UNKNOWN, database.value(0xF | 0x1000, 0xF0));
+        // O is a stone ahead
+        assertEquals(TicTacToeDatabase.UNKNOWN, database.value(0x1, 0x6));
+    }
+
+    @Test
+    void reopensTheFileItBuilt(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("db");
+        TicTacToeDatabase.openOrBuild(file);
+        assertEquals(TicTacToeDatabase.DRAW, TicTacToeDatabase.open(file).value(0, 0));
+        Files.write(file, new byte[100]);
+        assertThrows(IOException.class, () -> TicTacToeDatabase.open(file));
+        assertEquals(TicTacToeDatabase.DRAW, TicTacToeDatabase.openOrBuild(file).value(0, 0)); // Rebuilt
+    }
+}
@@ -0,0 +1,55 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TicTacToeSolverTest {
+    private final Minimax minimax = new Minimax(3);
+
+    @Test
+    void matchesMinimaxOnEveryReachablePosition() {
+        int[] checked = {0};
+        minimax.walk((x, o) -> {
+            assertEquals(minimax.value(x, o), Integer.signum(TicTacToeSolver.evaluate(x, o)), "x=" + x + " o=" + o);
+            checked[0]++;
+        });
+        assertEquals(5478, checked[0]); // Every legal position, finished ones included
+        assertTrue(TicTacToeSolver.positionCount() < checked[0]); // Folded under the symmetries
+    }
+
+    @Test
+    void bestMoveKeepsTheValue() {
+        Random random = new Random(1);
+        minimax.walk((x, o) -> {
+            if (!minimax.isOver(x, o)) {
+                int cell = TicTacToeSolver.bestMove(x, o, random);
+                assertEquals(minimax.value(x, o), minimax.moveValue(x, o, cell), "x=" + x + " o=" + o + " cell=" + cell);
+            }
+        });
+    }
+
+    @Test
+    void bestMoveIsMinusOneOnceTheGameIsOver() {
+        assertEquals(-1, TicTacToeSolver.bestMove(0b000_000_111, 0b000_011_000, new Random(1)));
+        assertEquals(-1, TicTacToeSolver.bestMove(0b011_100_101, 0b100_011_010, new Random(1)));
+    }
+
+    @Test
+    void perfectPlayAgainstItselfIsADraw() {
+        Random random = new Random(3);
+        for (int game = 0; game < 20; game++) {
+            int end = Minimax.playOut((x, o) -> TicTacToeSolver.bestMove(x, o, random));
+            int x = end >>> 16, o = end & 0xFFFF;
+            assertEquals(TicTacToeBoard.FULL, x | o);
+            assertFalse(minimax.hasLine(x) || minimax.hasLine(o));
+        }
+    }
+
+    @Test
+    void rejectsUnreachablePositions() {
+        assertThrows(IllegalArgumentException.class, () -> TicTacToeSolver.evaluate(0b000_000_011, 0));
+    }
+}